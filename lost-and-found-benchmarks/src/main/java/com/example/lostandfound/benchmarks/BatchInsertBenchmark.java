@@ -0,0 +1,88 @@
+package com.example.lostandfound.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.lostandfound.model.Item;
+import com.example.lostandfound.model.User;
+import com.example.lostandfound.repository.ItemRepository;
+import com.example.lostandfound.repository.UserRepository;
+
+// Per-item cost of the batch endpoint's write path (one transaction, JDBC batches from the
+// pooled sequence) against saving each item in its own transaction
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchInsertBenchmark {
+
+    private static final int ITEMS_PER_CALL = 200;
+
+    private ConfigurableApplicationContext context;
+    private ItemRepository itemRepository;
+    private TransactionTemplate transactionTemplate;
+    private User owner;
+
+    @Setup
+    public void setup() {
+        context = BenchmarkContexts.start();
+        BenchmarkData.seed(context.getBean(JdbcTemplate.class), 10, 0);
+        itemRepository = context.getBean(ItemRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        owner = context.getBean(UserRepository.class).findByUsername("user1").get();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEMS_PER_CALL)
+    public List<Item> saveAllInOneTransaction() {
+        List<Item> items = newItems();
+        return transactionTemplate.execute(status -> itemRepository.saveAll(items));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEMS_PER_CALL)
+    public List<Item> saveEachSeparately() {
+        List<Item> items = newItems();
+        List<Item> saved = new ArrayList<>(items.size());
+        for (Item item : items) {
+            saved.add(itemRepository.save(item));
+        }
+        return saved;
+    }
+
+    private List<Item> newItems() {
+        List<Item> items = new ArrayList<>(ITEMS_PER_CALL);
+        for (int i = 0; i < ITEMS_PER_CALL; i++) {
+            Item item = new Item("Black wallet " + i, "Leather wallet with a student card", "Library",
+                    BenchmarkData.BASE_DATE, "found", "");
+            item.setUser(owner);
+            items.add(item);
+        }
+        return items;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.lostandfound.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.lostandfound.LostAndFoundApplication;
+
+// Starts the real application for benchmarks that need wired beans and a database
+final class BenchmarkContexts {
+
+    private BenchmarkContexts() {
+    }
+
+    // Passed as command-line arguments: SpringApplicationBuilder.properties() only sets defaults,
+    // which application.properties would override
+    static ConfigurableApplicationContext start(String... overrides) {
+        List<String> properties = new ArrayList<>(List.of(
+                "server.port=0",
+                "logging.level.root=WARN",
+                // Background work that would compete with the measured code
+                "lostandfound.notifications.dispatch.enabled=false",
+                "lostandfound.archive.enabled=false"));
+        properties.addAll(Arrays.asList(overrides));
+        return new SpringApplicationBuilder(LostAndFoundApplication.class)
+                .run(properties.stream().map(property -> "--" + property).toArray(String[]::new));
+    }
+}
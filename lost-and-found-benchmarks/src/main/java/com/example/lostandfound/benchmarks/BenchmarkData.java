@@ -0,0 +1,98 @@
+package com.example.lostandfound.benchmarks;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// Seeds users and items straight through JDBC batches; going through JPA would take longer
+// than the benchmarks themselves at a million rows. The same seed always yields the same rows.
+final class BenchmarkData {
+
+    static final LocalDate BASE_DATE = LocalDate.of(2025, 1, 1);
+
+    private static final int BATCH_SIZE = 10_000;
+    private static final int ITEM_ID_BLOCK = 50;
+
+    // Any valid BCrypt hash; the benchmarks never log these users in
+    private static final String PASSWORD_HASH = "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3zpcRc4IcA3VOL4GjY6Ct.e";
+
+    private static final String[] COLOURS = { "black", "blue", "red", "grey", "white", "green", "brown", "silver" };
+    private static final String[] OBJECTS = { "wallet", "keys", "phone", "backpack", "umbrella", "laptop", "jacket",
+            "water bottle", "headphones", "id card", "glasses", "charger", "scarf", "notebook", "watch" };
+    private static final String[] DETAILS = { "with a sticker", "in a case", "with initials", "slightly scratched",
+            "with a keychain", "brand new", "well used", "with a name tag" };
+    private static final String[] LOCATIONS = { "Library", "Cafeteria", "Gym", "Main Hall", "Student Union",
+            "Science Building", "Parking Lot", "Bus Stop", "Lecture Theatre A", "Dormitory", "Sports Field",
+            "Computer Lab" };
+
+    // Items are spread over roughly 110 x 70 km around this point; a separate generator keeps the
+    // text columns identical to runs without coordinates
+    static final double CENTRE_LATITUDE = 51.5;
+    static final double CENTRE_LONGITUDE = -0.12;
+
+    private BenchmarkData() {
+    }
+
+    static void seed(JdbcTemplate jdbc, int users, int items) {
+        Random random = new Random(42);
+        Random positions = new Random(7);
+
+        List<Object[]> userRows = new ArrayList<>(users);
+        for (int i = 1; i <= users; i++) {
+            userRows.add(new Object[] { i, "user" + i, PASSWORD_HASH, "user" + i + "@example.com", "ROLE_USER" });
+        }
+        jdbc.batchUpdate("INSERT INTO users (id, username, password, email, role) VALUES (?, ?, ?, ?, ?)", userRows);
+
+        List<Object[]> itemRows = new ArrayList<>(BATCH_SIZE);
+        for (int id = 1; id <= items; id++) {
+            String colour = COLOURS[random.nextInt(COLOURS.length)];
+            String object = OBJECTS[skewed(random, OBJECTS.length)];
+            String location = LOCATIONS[skewed(random, LOCATIONS.length)];
+            String title = capitalize(colour) + " " + object;
+            String description = capitalize(colour) + " " + object + " " + DETAILS[random.nextInt(DETAILS.length)]
+                    + ", near the " + location;
+            // Recent days are much more common than old ones
+            LocalDate date = BASE_DATE.minusDays((long) (Math.pow(random.nextDouble(), 3) * 365));
+            String type = random.nextInt(10) < 6 ? "lost" : "found";
+            double latitude = CENTRE_LATITUDE + (positions.nextDouble() - 0.5);
+            double longitude = CENTRE_LONGITUDE + (positions.nextDouble() - 0.5);
+
+            itemRows.add(new Object[] { id, 1 + random.nextInt(users), title, description, location,
+                    Date.valueOf(date), type, "", title.toLowerCase(Locale.ROOT), location.toLowerCase(Locale.ROOT),
+                    latitude, longitude });
+            if (itemRows.size() == BATCH_SIZE) {
+                insertItems(jdbc, itemRows);
+                itemRows.clear();
+            }
+        }
+        insertItems(jdbc, itemRows);
+
+        // Keep generated ids clear of the seeded ones for benchmarks that insert. Each item_seq value
+        // is the top of a block of 50 ids (see V3__Item_id_sequence), so leave a whole block above them.
+        jdbc.execute("ALTER TABLE users ALTER COLUMN id RESTART WITH " + (users + 1));
+        jdbc.execute("ALTER SEQUENCE item_seq RESTART WITH " + (items == 0 ? 1 : items + ITEM_ID_BLOCK));
+        jdbc.execute("ANALYZE");
+    }
+
+    private static void insertItems(JdbcTemplate jdbc, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbc.batchUpdate("INSERT INTO item (id, user_id, title, description, location, date, type, image_url, " +
+                "title_lower, location_lower, latitude, longitude) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    // Index in [0, size) biased towards the front, so a few values dominate like in real reports
+    private static int skewed(Random random, int size) {
+        return (int) (Math.pow(random.nextDouble(), 2) * size);
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.lostandfound.benchmarks;
+
+import java.sql.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// The hot lookup predicates with and without the indexes of V2__add_lookup_indexes. With
+// indexes=false they are dropped after seeding, which leaves the schema as it was before that
+// migration (the foreign key keeps the index H2 made for it). The query plans of both variants
+// are printed during setup, so a run shows plans and latencies side by side.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class IndexBenchmark {
+
+    private static final int USERS = 10_000;
+
+    private static final String BY_USERNAME = "SELECT id FROM users WHERE username = ?";
+    private static final String BY_OWNER = "SELECT id FROM item WHERE user_id = ?";
+    private static final String BY_TYPE_AND_DATE = "SELECT id FROM item WHERE type = ? AND date = ?";
+    private static final String BY_DATE = "SELECT id FROM item WHERE date = ?";
+    private static final String BY_TITLE_PREFIX = "SELECT id FROM item WHERE title_lower LIKE ?";
+
+    // What V2 added; the unique constraint brings its own index
+    private static final String[] DROPPED = {
+        "ALTER TABLE users DROP CONSTRAINT uk_users_username",
+        "DROP INDEX idx_item_user_id",
+        "DROP INDEX idx_item_type_date",
+        "DROP INDEX idx_item_date",
+        "DROP INDEX idx_item_title_lower",
+        "DROP INDEX idx_item_location_lower"
+    };
+
+    @Param({ "1000000" })
+    public int items;
+
+    @Param({ "true", "false" })
+    public boolean indexes;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbc;
+    private int next;
+
+    @Setup
+    public void setup() {
+        context = BenchmarkContexts.start();
+        jdbc = context.getBean(JdbcTemplate.class);
+        BenchmarkData.seed(jdbc, USERS, items);
+
+        if (!indexes) {
+            for (String statement : DROPPED) {
+                try {
+                    jdbc.execute(statement);
+                } catch (DataAccessException e) {
+                    System.out.printf("%nCould not run '%s': %s%n", statement, e.getMostSpecificCause().getMessage());
+                }
+            }
+            jdbc.execute("ANALYZE");
+        }
+
+        System.out.printf("%nQuery plans with indexes=%s:%n", indexes);
+        explain(BY_USERNAME, "user1");
+        explain(BY_OWNER, 1);
+        explain(BY_TYPE_AND_DATE, "found", Date.valueOf(BenchmarkData.BASE_DATE.minusDays(3)));
+        explain(BY_DATE, Date.valueOf(BenchmarkData.BASE_DATE.minusDays(3)));
+        explain(BY_TITLE_PREFIX, "black wallet%");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    // Every authenticated request on a user cache miss
+    @Benchmark
+    public List<Long> byUsername() {
+        return jdbc.queryForList(BY_USERNAME, Long.class, "user" + (1 + nextIndex() % USERS));
+    }
+
+    @Benchmark
+    public List<Long> byOwner() {
+        return jdbc.queryForList(BY_OWNER, Long.class, 1 + nextIndex() % USERS);
+    }
+
+    @Benchmark
+    public List<Long> byTypeAndDate() {
+        return jdbc.queryForList(BY_TYPE_AND_DATE, Long.class, nextIndex() % 2 == 0 ? "lost" : "found",
+                Date.valueOf(BenchmarkData.BASE_DATE.minusDays(nextIndex() % 30)));
+    }
+
+    @Benchmark
+    public List<Long> byDate() {
+        return jdbc.queryForList(BY_DATE, Long.class,
+                Date.valueOf(BenchmarkData.BASE_DATE.minusDays(nextIndex() % 30)));
+    }
+
+    @Benchmark
+    public List<Long> byTitlePrefix() {
+        return jdbc.queryForList(BY_TITLE_PREFIX, Long.class, nextIndex() % 2 == 0 ? "black wallet%" : "red keys%");
+    }
+
+    private int nextIndex() {
+        return next++ & Integer.MAX_VALUE;
+    }
+
+    private void explain(String sql, Object... args) {
+        System.out.println(jdbc.queryForObject("EXPLAIN " + sql, String.class, args));
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.lostandfound.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.lostandfound.event.ItemChangedEvent;
+import com.example.lostandfound.event.ItemSnapshot;
+import com.example.lostandfound.model.Item;
+import com.example.lostandfound.search.ItemMatcher;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Sustained item writes into the matcher on a full index. The measured operation is what the commit
+// thread pays in ItemMatcher.onItemChanged: the index update plus handing the announcement to the
+// single item-matcher worker. Whether that worker keeps up is printed after each iteration:
+// announcements it finished (announceNewMatches plus the MatchNotifier queries and outbox inserts
+// behind each announced pair), the queue depth, and announcements dropped because the queue was full.
+// With notifyScore above 1 nothing qualifies, which leaves the matching cost alone.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(4)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class MatcherIntakeBenchmark {
+
+    private static final String[] COLOURS = { "black", "blue", "red", "grey", "white", "green" };
+    private static final String[] OBJECTS = { "wallet", "keys", "phone", "backpack", "umbrella", "laptop",
+            "headphones", "charger", "scarf", "watch" };
+    private static final String[] LOCATIONS = { "Library", "Cafeteria", "Gym", "Main Hall", "Bus Stop" };
+
+    @Param({ "1000000" })
+    public int items;
+
+    @Param({ "0.5", "2" })
+    public double notifyScore;
+
+    private ConfigurableApplicationContext context;
+    private ItemMatcher itemMatcher;
+    private MeterRegistry meterRegistry;
+
+    private final AtomicLong next = new AtomicLong();
+    private final LongAdder submitted = new LongAdder();
+    private long startedAt;
+    private double completedBefore;
+    private double backlogBefore;
+
+    @Setup
+    public void setup() {
+        context = BenchmarkContexts.start("lostandfound.matching.notify-score=" + notifyScore,
+                // One warning per dropped announcement would swamp the output
+                "logging.level.com.example.lostandfound.search.ItemMatcher=ERROR");
+        BenchmarkData.seed(context.getBean(JdbcTemplate.class), 1000, items);
+
+        itemMatcher = context.getBean(ItemMatcher.class);
+        meterRegistry = context.getBean(MeterRegistry.class);
+        itemMatcher.rebuild();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetCounts() {
+        submitted.reset();
+        completedBefore = completed();
+        backlogBefore = backlog();
+        startedAt = System.nanoTime();
+    }
+
+    @TearDown(Level.Iteration)
+    public void printCounts() {
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+        double done = completed() - completedBefore;
+        double dropped = submitted.sum() - done - (backlog() - backlogBefore);
+        System.out.printf("%n%.0f announcements/s, queue %.0f of %.0f, %.0f dropped (%.1f%% of writes)%n",
+                done / seconds, gauge("executor.queued"), gauge("executor.queued") + gauge("executor.queue.remaining"),
+                dropped, submitted.sum() == 0 ? 0 : 100 * dropped / submitted.sum());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    // A seeded item re-reported with new text, as a create or an edit that changes its words
+    @Benchmark
+    public void onItemChanged() {
+        long round = next.getAndIncrement();
+        long id = 1 + round % items;
+        String colour = COLOURS[(int) (round % COLOURS.length)];
+        String object = OBJECTS[(int) (round / COLOURS.length % OBJECTS.length)];
+        String location = LOCATIONS[(int) (round % LOCATIONS.length)];
+        ItemSnapshot current = new ItemSnapshot(id, 1 + id % 1000, colour + " " + object,
+                colour + " " + object + " left near the " + location, location,
+                BenchmarkData.BASE_DATE.minusDays(round % 30), round % 2 == 0 ? "lost" : "found", "", null,
+                null, null, Item.OPEN);
+        itemMatcher.onItemChanged(ItemChangedEvent.created(current));
+        submitted.increment();
+    }
+
+    // Accepted by the worker but not finished yet
+    private double backlog() {
+        return gauge("executor.queued") + gauge("executor.active");
+    }
+
+    private double completed() {
+        FunctionCounter counter = meterRegistry.find("executor.completed").tag("name", "itemMatcher").functionCounter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    private double gauge(String name) {
+        Gauge gauge = meterRegistry.find(name).tag("name", "itemMatcher").gauge();
+        return gauge != null ? gauge.value() : 0;
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.lostandfound.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.lostandfound.model.Item;
+import com.example.lostandfound.repository.ItemRepository;
+import com.example.lostandfound.repository.ItemWrite;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Owner edits from several threads at once: the old load-check-save path against the single
+// ownership-checked UPDATE. Every thread works on its own slice of items so neither side loses
+// time to version conflicts. Statements per write are printed after each iteration.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class OwnedWriteBenchmark {
+
+    private static final int ITEMS = 8_000;
+
+    private ConfigurableApplicationContext context;
+    private ItemRepository itemRepository;
+    private TransactionTemplate transactionTemplate;
+    private Statistics statistics;
+    private long[] ids;
+    private long[] owners;
+
+    private final AtomicInteger threads = new AtomicInteger();
+    private final LongAdder writes = new LongAdder();
+
+    @State(Scope.Thread)
+    public static class Slice {
+
+        int start;
+        int size;
+        int next;
+
+        @Setup
+        public void setup(OwnedWriteBenchmark benchmark) {
+            int thread = benchmark.threads.getAndIncrement();
+            size = ITEMS / 8;
+            start = (thread % 8) * size;
+        }
+
+        int nextIndex() {
+            return start + (next++ % size);
+        }
+    }
+
+    @Setup
+    public void setup() {
+        context = BenchmarkContexts.start("spring.jpa.properties.hibernate.generate_statistics=true");
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        BenchmarkData.seed(jdbc, 100, ITEMS);
+
+        List<Map<String, Object>> rows = jdbc.queryForList("SELECT id, user_id FROM item ORDER BY id");
+        ids = new long[rows.size()];
+        owners = new long[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            ids[i] = ((Number) rows.get(i).get("id")).longValue();
+            owners[i] = ((Number) rows.get(i).get("user_id")).longValue();
+        }
+
+        itemRepository = context.getBean(ItemRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetCounts() {
+        statistics.clear();
+        writes.reset();
+    }
+
+    @TearDown(Level.Iteration)
+    public void printCounts() {
+        if (writes.sum() > 0) {
+            System.out.printf("%n%.2f statements per write%n",
+                    statistics.getPrepareStatementCount() / (double) writes.sum());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    // What updateItem did before: read the row, compare owners in Java, let dirty checking write it
+    @Benchmark
+    public Item loadThenSave(Slice slice) {
+        int index = slice.nextIndex();
+        Item changes = changes(slice.next);
+        Item updated = transactionTemplate.execute(status -> {
+            Optional<Item> item = itemRepository.findById(ids[index]);
+            if (!item.isPresent() || !item.get().getUser().getId().equals(owners[index])) {
+                return null;
+            }
+            item.get().updateItem(changes);
+            return item.get();
+        });
+        writes.increment();
+        return updated;
+    }
+
+    @Benchmark
+    public ItemWrite ownedUpdate(Slice slice) {
+        int index = slice.nextIndex();
+        Item changes = changes(slice.next);
+        ItemWrite write = transactionTemplate.execute(status ->
+                itemRepository.updateOwned(ids[index], owners[index], null, changes, false).orElse(null));
+        writes.increment();
+        return write;
+    }
+
+    private static Item changes(int round) {
+        return new Item("Black wallet " + round, "Leather wallet with a student card", "Library",
+                BenchmarkData.BASE_DATE, "found", "");
+    }
+}
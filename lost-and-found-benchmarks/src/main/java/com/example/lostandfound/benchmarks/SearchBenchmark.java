@@ -0,0 +1,131 @@
+package com.example.lostandfound.benchmarks;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.lostandfound.dto.PublicItemDTO;
+import com.example.lostandfound.event.ItemSnapshot;
+import com.example.lostandfound.repository.ItemRepository;
+import com.example.lostandfound.search.GeoArea;
+import com.example.lostandfound.search.ItemMatch;
+import com.example.lostandfound.search.ItemMatcher;
+import com.example.lostandfound.search.ItemSearchCriteria;
+import com.example.lostandfound.search.ItemSearchIndex;
+import com.example.lostandfound.search.SearchResultCache;
+
+// One page (default size + 1) of search results from each path the controller can take:
+// the SQL fallback, the in-memory index and the result cache, plus the lost/found matcher.
+// Sampled so the results carry the latency distribution (p0.50 ... p0.99) and not just the mean.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SearchBenchmark {
+
+    private static final int PAGE = 51;
+
+    @Param({ "10000", "100000", "1000000" })
+    public int items;
+
+    private final ItemSearchCriteria title = new ItemSearchCriteria("wallet", null, null, null, null);
+    private final ItemSearchCriteria freeText = new ItemSearchCriteria(null, null, "blue umbrella", null, null);
+    private final ItemSearchCriteria typeAndDate =
+            new ItemSearchCriteria(null, null, null, "found", BenchmarkData.BASE_DATE.minusDays(3));
+    private final ItemSearchCriteria nearby = new ItemSearchCriteria(null, null, null, "found", null,
+            GeoArea.circle(BenchmarkData.CENTRE_LATITUDE, BenchmarkData.CENTRE_LONGITUDE, 1.0));
+
+    private ConfigurableApplicationContext context;
+    private ItemRepository itemRepository;
+    private ItemSearchIndex itemSearchIndex;
+    private SearchResultCache searchResultCache;
+    private ItemMatcher itemMatcher;
+
+    @Setup
+    public void setup() {
+        context = BenchmarkContexts.start();
+        BenchmarkData.seed(context.getBean(JdbcTemplate.class), 1000, items);
+
+        itemRepository = context.getBean(ItemRepository.class);
+        itemSearchIndex = context.getBean(ItemSearchIndex.class);
+        searchResultCache = context.getBean(SearchResultCache.class);
+        itemMatcher = context.getBean(ItemMatcher.class);
+
+        // Seeded behind Hibernate's back, so the in-memory indexes have to be rebuilt
+        itemSearchIndex.rebuild();
+        itemMatcher.rebuild();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<PublicItemDTO> sqlTitle() {
+        return sql(title);
+    }
+
+    @Benchmark
+    public List<PublicItemDTO> sqlFreeText() {
+        return sql(freeText);
+    }
+
+    @Benchmark
+    public List<PublicItemDTO> sqlTypeAndDate() {
+        return sql(typeAndDate);
+    }
+
+    @Benchmark
+    public List<PublicItemDTO> sqlNearby() {
+        return sql(nearby);
+    }
+
+    @Benchmark
+    public Optional<List<ItemSnapshot>> indexTitle() {
+        return itemSearchIndex.search(title, null, PAGE);
+    }
+
+    @Benchmark
+    public Optional<List<ItemSnapshot>> indexFreeText() {
+        return itemSearchIndex.search(freeText, null, PAGE);
+    }
+
+    @Benchmark
+    public Optional<List<ItemSnapshot>> indexNearby() {
+        return itemSearchIndex.search(nearby, null, PAGE);
+    }
+
+    // Steady state of a repeated search: a cache hit with no writes in between
+    @Benchmark
+    public List<PublicItemDTO> cachedTitle() {
+        return searchResultCache.get(title, null, PAGE, () -> sql(title)).getRows();
+    }
+
+    @Benchmark
+    public Optional<List<ItemMatch>> matches() {
+        return itemMatcher.findMatches(1L, PAGE);
+    }
+
+    private List<PublicItemDTO> sql(ItemSearchCriteria criteria) {
+        return itemRepository.searchItems(criteria, null, PageRequest.of(0, PAGE));
+    }
+}
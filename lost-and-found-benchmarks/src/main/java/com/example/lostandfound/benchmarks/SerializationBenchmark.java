@@ -0,0 +1,68 @@
+package com.example.lostandfound.benchmarks;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.lostandfound.dto.PublicItemDTO;
+import com.example.lostandfound.model.Item;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Response body cost of returning entities versus the public DTO, with the same mapper setup as the web layer
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({ "50", "1000" })
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<Item> items;
+    private List<PublicItemDTO> dtos;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        items = new ArrayList<>(size);
+        dtos = new ArrayList<>(size);
+        LocalDate date = LocalDate.of(2025, 1, 1);
+        for (int i = 0; i < size; i++) {
+            Item item = new Item("Black wallet " + i, "Leather wallet with a student card", "Library",
+                    date.minusDays(i % 365), i % 2 == 0 ? "lost" : "found", "");
+            item.setId((long) i + 1);
+            items.add(item);
+            dtos.add(new PublicItemDTO(item.getId(), item.getTitle(), item.getDescription(), item.getLocation(),
+                    item.getDate(), item.getType(), item.getImageUrl(), item.getThumbnailUrl(),
+                    item.getLatitude(), item.getLongitude(), item.getStatus()));
+        }
+    }
+
+    @Benchmark
+    public byte[] items() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(items);
+    }
+
+    @Benchmark
+    public byte[] publicItemDtos() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(dtos);
+    }
+}
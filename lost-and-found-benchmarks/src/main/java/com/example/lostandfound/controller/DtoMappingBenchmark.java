@@ -0,0 +1,73 @@
+package com.example.lostandfound.controller;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.lostandfound.dto.PublicItemDTO;
+import com.example.lostandfound.event.ItemSnapshot;
+import com.example.lostandfound.model.Item;
+
+// Lives in the controller package to reach ItemController's package-private mapping methods
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    @Param({ "1000", "100000" })
+    public int size;
+
+    private List<Item> items;
+    private List<ItemSnapshot> snapshots;
+
+    @Setup
+    public void setup() {
+        items = new ArrayList<>(size);
+        snapshots = new ArrayList<>(size);
+        LocalDate date = LocalDate.of(2025, 1, 1);
+        for (int i = 0; i < size; i++) {
+            Item item = new Item("Black wallet " + i, "Leather wallet with a student card", "Library",
+                    date.minusDays(i % 365), i % 2 == 0 ? "lost" : "found", "");
+            item.setId((long) i + 1);
+            items.add(item);
+            snapshots.add(new ItemSnapshot(item.getId(), 1L, item.getTitle(), item.getDescription(),
+                    item.getLocation(), item.getDate(), item.getType(), item.getImageUrl(), null,
+                    item.getLatitude(), item.getLongitude(), item.getStatus()));
+        }
+    }
+
+    @Benchmark
+    public List<PublicItemDTO> fromEntities() {
+        List<PublicItemDTO> result = new ArrayList<>(items.size());
+        for (Item item : items) {
+            result.add(ItemController.convertToPublicDTO(item));
+        }
+        return result;
+    }
+
+    // The path of searches answered by the in-memory index
+    @Benchmark
+    public List<PublicItemDTO> fromSnapshots() {
+        List<PublicItemDTO> result = new ArrayList<>(snapshots.size());
+        for (ItemSnapshot snapshot : snapshots) {
+            result.add(ItemController.convertToPublicDTO(snapshot));
+        }
+        return result;
+    }
+}
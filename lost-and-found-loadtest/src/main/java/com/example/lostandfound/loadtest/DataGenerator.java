@@ -0,0 +1,120 @@
+package com.example.lostandfound.loadtest;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.Random;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+// Creates the schema with the service's own Flyway migrations and bulk-loads users and items
+// through JDBC batches. The same seed always produces the same database.
+public final class DataGenerator {
+
+    private static final int BATCH_SIZE = 10_000;
+
+    // Matches V3__Item_id_sequence: each item_seq value is the top of a block of 50 ids
+    private static final int ITEM_ID_BLOCK = 50;
+
+    private DataGenerator() {
+    }
+
+    public static void main(String[] args) throws SQLException {
+        String url = System.getProperty("loadtest.db.url", SyntheticData.DEFAULT_DB_URL);
+        int users = Integer.getInteger("loadtest.users", 100_000);
+        int items = Integer.getInteger("loadtest.items", 1_000_000);
+        Random random = new Random(Long.getLong("loadtest.seed", 42L));
+
+        Flyway.configure().dataSource(url, "sa", "").load().migrate();
+
+        long started = System.currentTimeMillis();
+        try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+            connection.setAutoCommit(false);
+            if (count(connection, "users") > 0 || count(connection, "item") > 0) {
+                throw new IllegalStateException("Database at " + url + " already has data; delete it first");
+            }
+
+            insertUsers(connection, users);
+            insertItems(connection, random, users, items);
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ALTER TABLE users ALTER COLUMN id RESTART WITH " + (users + 1));
+                statement.execute("ALTER SEQUENCE item_seq RESTART WITH " + (items == 0 ? 1 : items + ITEM_ID_BLOCK));
+                statement.execute("ANALYZE");
+            }
+            connection.commit();
+        }
+        System.out.printf("Generated %d users and %d items in %d s%n", users, items,
+                (System.currentTimeMillis() - started) / 1000);
+    }
+
+    private static void insertUsers(Connection connection, int users) throws SQLException {
+        // Hashing once keeps generation fast; every user logs in with the same password
+        String hash = new BCryptPasswordEncoder().encode(SyntheticData.PASSWORD);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO users (id, username, password, email, role) VALUES (?, ?, ?, ?, ?)")) {
+            for (int id = 1; id <= users; id++) {
+                String username = SyntheticData.username(id);
+                insert.setLong(1, id);
+                insert.setString(2, username);
+                insert.setString(3, hash);
+                insert.setString(4, username + "@example.com");
+                insert.setString(5, "ROLE_USER");
+                insert.addBatch();
+                if (id % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+    }
+
+    private static void insertItems(Connection connection, Random random, int users, int items)
+            throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO item (id, user_id, title, "
+                + "description, location, date, type, image_url, title_lower, location_lower) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int id = 1; id <= items; id++) {
+                String title = SyntheticData.title(random);
+                String location = SyntheticData.location(random);
+                insert.setLong(1, id);
+                // A small share of users file most of the reports
+                insert.setLong(2, 1 + SyntheticData.skewed(random, users));
+                insert.setString(3, title);
+                insert.setString(4, SyntheticData.description(random, title, location));
+                insert.setString(5, location);
+                insert.setDate(6, Date.valueOf(SyntheticData.date(random)));
+                insert.setString(7, SyntheticData.type(random));
+                insert.setString(8, "");
+                insert.setString(9, title.toLowerCase(Locale.ROOT));
+                insert.setString(10, location.toLowerCase(Locale.ROOT));
+                insert.addBatch();
+                if (id % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+                if (id % 500_000 == 0) {
+                    System.out.printf("%d items%n", id);
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+    }
+
+    private static long count(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+                ResultSet result = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.lostandfound.loadtest;
+
+import java.util.Arrays;
+
+// Growable array of latencies in microseconds. Each worker owns its own instance and they are
+// merged after the run, so recording never contends.
+final class LatencySamples {
+
+    private long[] values = new long[1024];
+    private int size;
+    private long errors;
+
+    void record(long micros) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = micros;
+    }
+
+    void recordError() {
+        errors++;
+    }
+
+    void addAll(LatencySamples other) {
+        for (int i = 0; i < other.size; i++) {
+            record(other.values[i]);
+        }
+        errors += other.errors;
+    }
+
+    int count() {
+        return size;
+    }
+
+    long errors() {
+        return errors;
+    }
+
+    // Nearest-rank percentile in milliseconds; sorts in place, so call after recording is done
+    double percentileMillis(double percentile) {
+        if (size == 0) {
+            return 0;
+        }
+        Arrays.sort(values, 0, size);
+        int rank = (int) Math.ceil(percentile / 100.0 * size);
+        return values[Math.max(0, Math.min(size, rank) - 1)] / 1000.0;
+    }
+}
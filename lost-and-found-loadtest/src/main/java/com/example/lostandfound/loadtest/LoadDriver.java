@@ -0,0 +1,296 @@
+package com.example.lostandfound.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+// Closed-loop HTTP load against a running service: each client sends the next request as soon
+// as the previous one returned, picking operations by the configured mix. Latencies recorded
+// after the warmup go into a JSON report; configured SLOs turn into the exit status.
+//
+// With loadtest.login-storm set, that many extra clients do nothing but log in during the second
+// half of the measurement. The mix's samples from that half are reported as "<operation>-storm",
+// so e.g. get and get-storm show item latency without and with the storm.
+public final class LoadDriver {
+
+    private static final int TOKEN_POOL_SIZE = 50;
+    private static final int PAGE_SIZE = 20;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final String baseUrl;
+    private final String label;
+    private final String mixSpec;
+    private final Map<Operation, Integer> mix;
+    private final int concurrency;
+    private final int stormClients;
+    private final Duration warmup;
+    private final Duration duration;
+    private final int users;
+    private final int items;
+    private final List<String> tokens = new ArrayList<>();
+
+    private LoadDriver() {
+        baseUrl = System.getProperty("loadtest.base-url", "http://localhost:8080");
+        label = System.getProperty("loadtest.label", "");
+        mixSpec = System.getProperty("loadtest.mix", "mixed");
+        mix = Operation.mix(mixSpec);
+        concurrency = Integer.getInteger("loadtest.concurrency", 32);
+        stormClients = Integer.getInteger("loadtest.login-storm", 0);
+        warmup = Duration.parse(System.getProperty("loadtest.warmup", "PT30S"));
+        duration = Duration.parse(System.getProperty("loadtest.duration", "PT2M"));
+        users = Integer.getInteger("loadtest.users", 100_000);
+        items = Integer.getInteger("loadtest.items", 1_000_000);
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadDriver driver = new LoadDriver();
+        Map<String, LatencySamples> results = driver.run();
+        boolean sloMet = driver.report(results, System.getProperty("loadtest.slo", ""),
+                Path.of(System.getProperty("loadtest.report", "lost-and-found-loadtest/target/loadtest-report.json")));
+        System.exit(sloMet ? 0 : 1);
+    }
+
+    private Map<String, LatencySamples> run() throws Exception {
+        // Authenticated operations share a pool of tokens, logging in is measured separately
+        Random random = new Random(1);
+        for (int i = 0; i < Math.min(TOKEN_POOL_SIZE, users); i++) {
+            tokens.add(login(SyntheticData.username(1 + random.nextInt(users))));
+        }
+
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        long stormFrom = stormClients > 0 ? measureFrom + duration.toNanos() / 2 : Long.MAX_VALUE;
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency + stormClients);
+        List<Future<Map<String, LatencySamples>>> futures = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            long seed = 1000L + i;
+            futures.add(workers.submit(() -> client(new Random(seed), measureFrom, stormFrom, end)));
+        }
+        for (int i = 0; i < stormClients; i++) {
+            long seed = 100_000L + i;
+            futures.add(workers.submit(() -> stormClient(new Random(seed), stormFrom, end)));
+        }
+
+        Map<String, LatencySamples> merged = new TreeMap<>();
+        for (Future<Map<String, LatencySamples>> future : futures) {
+            future.get().forEach((key, samples) ->
+                    merged.computeIfAbsent(key, k -> new LatencySamples()).addAll(samples));
+        }
+        workers.shutdown();
+        return merged;
+    }
+
+    private Map<String, LatencySamples> client(Random random, long measureFrom, long stormFrom, long end) {
+        Map<String, LatencySamples> samples = new TreeMap<>();
+        int totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        while (System.nanoTime() < end) {
+            Operation operation = pick(random, totalWeight);
+            long started = System.nanoTime();
+            boolean ok;
+            try {
+                ok = execute(operation, random);
+            } catch (IOException e) {
+                ok = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            long finished = System.nanoTime();
+            if (started >= measureFrom) {
+                String key = started >= stormFrom ? operation.key() + "-storm" : operation.key();
+                record(samples, key, ok, started, finished);
+            }
+        }
+        return samples;
+    }
+
+    // Logs in back to back from the start of the storm until the end of the run
+    private Map<String, LatencySamples> stormClient(Random random, long stormFrom, long end)
+            throws InterruptedException {
+        Map<String, LatencySamples> samples = new TreeMap<>();
+        long wait = stormFrom - System.nanoTime();
+        if (wait > 0) {
+            Thread.sleep(wait / 1_000_000, (int) (wait % 1_000_000));
+        }
+        while (System.nanoTime() < end) {
+            long started = System.nanoTime();
+            boolean ok;
+            try {
+                ok = execute(Operation.LOGIN, random);
+            } catch (IOException e) {
+                ok = false;
+            }
+            record(samples, "storm-login", ok, started, System.nanoTime());
+        }
+        return samples;
+    }
+
+    private static void record(Map<String, LatencySamples> samples, String key, boolean ok, long started,
+            long finished) {
+        LatencySamples keySamples = samples.computeIfAbsent(key, k -> new LatencySamples());
+        if (ok) {
+            keySamples.record((finished - started) / 1000);
+        } else {
+            keySamples.recordError();
+        }
+    }
+
+    private Operation pick(Random random, int totalWeight) {
+        int roll = random.nextInt(totalWeight);
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty mix");
+    }
+
+    private boolean execute(Operation operation, Random random) throws IOException, InterruptedException {
+        HttpRequest request;
+        switch (operation) {
+            case SEARCH:
+                String query = URLEncoder.encode(SyntheticData.searchQuery(random), StandardCharsets.UTF_8);
+                request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/items/search?q=" + query
+                        + "&limit=" + PAGE_SIZE)).GET().build();
+                break;
+            case GET:
+                request = authorized(random, "/api/items/" + (1 + SyntheticData.skewed(random, items))).GET().build();
+                break;
+            case CREATE:
+                request = authorized(random, "/api/items")
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(newItemJson(random)))
+                        .build();
+                break;
+            case LOGIN:
+                request = loginRequest(SyntheticData.username(1 + random.nextInt(users)));
+                break;
+            default:
+                throw new IllegalArgumentException(operation.name());
+        }
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        return response.statusCode() / 100 == 2;
+    }
+
+    private HttpRequest.Builder authorized(Random random, String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + tokens.get(random.nextInt(tokens.size())));
+    }
+
+    private String newItemJson(Random random) throws IOException {
+        String title = SyntheticData.title(random);
+        String location = SyntheticData.location(random);
+        Map<String, Object> item = new LinkedHashMap<>();
+        item.put("title", title);
+        item.put("description", SyntheticData.description(random, title, location));
+        item.put("location", location);
+        item.put("date", SyntheticData.date(random).toString());
+        item.put("type", SyntheticData.type(random));
+        item.put("imageUrl", "");
+        return objectMapper.writeValueAsString(item);
+    }
+
+    private HttpRequest loginRequest(String username) throws IOException {
+        Map<String, String> body = Map.of("username", username, "password", SyntheticData.PASSWORD);
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build();
+    }
+
+    private String login(String username) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(loginRequest(username), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login of " + username + " failed with " + response.statusCode()
+                    + "; was the database generated and the app started with the loadtest profile?");
+        }
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    // Writes the report and returns whether every SLO held
+    private boolean report(Map<String, LatencySamples> results, String slo, Path file) throws IOException {
+        // With a storm every key covers one half of the measurement, before or during the storm
+        double seconds = duration.toMillis() / (stormClients > 0 ? 2000.0 : 1000.0);
+        Map<String, Object> operations = new LinkedHashMap<>();
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        for (Map.Entry<String, LatencySamples> entry : results.entrySet()) {
+            LatencySamples samples = entry.getValue();
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("count", samples.count());
+            stats.put("errors", samples.errors());
+            stats.put("throughputPerSecond", samples.count() / seconds);
+            for (double percentile : new double[] { 50, 90, 99, 99.9, 100 }) {
+                String name = percentile == 100 ? "max" : "p" + format(percentile);
+                double value = samples.percentileMillis(percentile);
+                stats.put(name + "Ms", value);
+                percentiles.put(entry.getKey() + "." + name, value);
+            }
+            operations.put(entry.getKey(), stats);
+            System.out.printf("%-12s %8d ok %6d errors %9.1f/s  p50 %7.1f ms  p99 %7.1f ms  max %7.1f ms%n",
+                    entry.getKey(), samples.count(), samples.errors(), samples.count() / seconds,
+                    stats.get("p50Ms"), stats.get("p99Ms"), stats.get("maxMs"));
+        }
+
+        List<String> violations = new ArrayList<>();
+        if (!slo.isBlank()) {
+            for (String part : slo.split(",")) {
+                String[] pair = part.trim().split("=");
+                double limit = Double.parseDouble(pair[1].trim().replace("ms", ""));
+                Double actual = percentiles.get(pair[0].trim());
+                if (actual == null || actual > limit) {
+                    violations.add(part.trim() + " (actual " + (actual == null ? "no samples" : actual + "ms") + ")");
+                }
+            }
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("finishedAt", Instant.now().toString());
+        report.put("label", label);
+        report.put("baseUrl", baseUrl);
+        report.put("mix", mixSpec);
+        report.put("concurrency", concurrency);
+        report.put("loginStormClients", stormClients);
+        report.put("warmup", warmup.toString());
+        report.put("duration", duration.toString());
+        report.put("operations", operations);
+        report.put("slo", slo);
+        report.put("sloViolations", violations);
+
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        objectMapper.writeValue(file.toFile(), report);
+        System.out.println("Report written to " + file.toAbsolutePath());
+        violations.forEach(violation -> System.out.println("SLO missed: " + violation));
+        return violations.isEmpty();
+    }
+
+    private static String format(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((int) percentile) : String.valueOf(percentile);
+    }
+}
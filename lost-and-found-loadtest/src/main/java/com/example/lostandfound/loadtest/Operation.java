@@ -0,0 +1,51 @@
+package com.example.lostandfound.loadtest;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+enum Operation {
+
+    SEARCH, GET, CREATE, LOGIN;
+
+    String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    static Operation of(String key) {
+        return valueOf(key.trim().toUpperCase(Locale.ROOT));
+    }
+
+    // Named mixes or explicit weights such as "search=60,get=30,create=10"
+    static Map<Operation, Integer> mix(String spec) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        switch (spec) {
+            case "read":
+                weights.put(SEARCH, 70);
+                weights.put(GET, 30);
+                return weights;
+            case "mixed":
+                weights.put(SEARCH, 50);
+                weights.put(GET, 25);
+                weights.put(CREATE, 20);
+                weights.put(LOGIN, 5);
+                return weights;
+            case "write":
+                weights.put(CREATE, 80);
+                weights.put(GET, 20);
+                return weights;
+            case "login":
+                weights.put(LOGIN, 100);
+                return weights;
+            default:
+                for (String part : spec.split(",")) {
+                    String[] pair = part.split("=");
+                    if (pair.length != 2) {
+                        throw new IllegalArgumentException("Bad mix entry '" + part + "', expected operation=weight");
+                    }
+                    weights.put(of(pair[0]), Integer.parseInt(pair[1].trim()));
+                }
+                return weights;
+        }
+    }
+}
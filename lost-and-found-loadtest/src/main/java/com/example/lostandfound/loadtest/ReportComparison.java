@@ -0,0 +1,56 @@
+package com.example.lostandfound.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Puts two driver reports side by side, e.g. the same run against platform and virtual threads:
+// throughput and p99 per operation and how the second run compares with the first.
+public final class ReportComparison {
+
+    private ReportComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        String[] files = System.getProperty("loadtest.compare", "").split(",");
+        if (files.length != 2) {
+            throw new IllegalArgumentException("Set loadtest.compare=<baseline report>,<candidate report>");
+        }
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonNode baseline = objectMapper.readTree(Path.of(files[0].trim()).toFile());
+        JsonNode candidate = objectMapper.readTree(Path.of(files[1].trim()).toFile());
+
+        System.out.printf("%s (%s clients) vs %s (%s clients)%n", name(baseline, files[0]),
+                baseline.path("concurrency").asText(), name(candidate, files[1]), candidate.path("concurrency").asText());
+        System.out.printf("%-12s %12s %12s %8s %10s %10s %8s%n",
+                "operation", "base/s", "cand/s", "ratio", "base p99", "cand p99", "ratio");
+        Iterator<Map.Entry<String, JsonNode>> operations = baseline.path("operations").fields();
+        while (operations.hasNext()) {
+            Map.Entry<String, JsonNode> entry = operations.next();
+            JsonNode base = entry.getValue();
+            JsonNode other = candidate.path("operations").path(entry.getKey());
+            if (other.isMissingNode()) {
+                continue;
+            }
+            double baseRate = base.path("throughputPerSecond").asDouble();
+            double otherRate = other.path("throughputPerSecond").asDouble();
+            double baseP99 = base.path("p99Ms").asDouble();
+            double otherP99 = other.path("p99Ms").asDouble();
+            System.out.printf("%-12s %12.1f %12.1f %7.2fx %8.1fms %8.1fms %7.2fx%n", entry.getKey(),
+                    baseRate, otherRate, ratio(otherRate, baseRate), baseP99, otherP99, ratio(otherP99, baseP99));
+        }
+    }
+
+    private static String name(JsonNode report, String file) {
+        String label = report.path("label").asText();
+        return label.isEmpty() ? file.trim() : label;
+    }
+
+    private static double ratio(double value, double base) {
+        return base == 0 ? 0 : value / base;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.lostandfound.loadtest;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+// Vocabulary and distributions shared by the generator and the driver, so searches hit
+// the same words the data was built from, with the same popularity.
+final class SyntheticData {
+
+    static final String DEFAULT_DB_URL = "jdbc:h2:file:./loadtest-data/lostandfound";
+    static final String PASSWORD = "password";
+
+    static final String[] COLOURS = { "black", "blue", "red", "grey", "white", "green", "brown", "silver", "pink",
+            "yellow", "purple", "orange" };
+
+    // Ordered by how often they are reported: phones and keys dominate, exotic items are rare
+    static final String[] OBJECTS = { "phone", "keys", "wallet", "water bottle", "headphones", "id card",
+            "umbrella", "backpack", "glasses", "charger", "jacket", "laptop", "notebook", "scarf", "watch",
+            "calculator", "earbuds case", "usb stick", "gloves", "beanie", "lunch box", "textbook", "bike lock",
+            "ring", "bracelet", "tablet", "camera", "skateboard" };
+
+    static final String[] DETAILS = { "with a sticker on the back", "in a leather case", "with initials engraved",
+            "slightly scratched", "with a keychain attached", "almost new", "well used", "with a name tag",
+            "with a cracked screen", "in a zip bag", "with a university logo", "with a red ribbon" };
+
+    static final String[] LOCATIONS = { "Library", "Cafeteria", "Main Hall", "Student Union", "Gym",
+            "Science Building", "Lecture Theatre A", "Lecture Theatre B", "Computer Lab", "Bus Stop",
+            "Parking Lot", "Dormitory North", "Dormitory South", "Sports Field", "Art Studio", "Chapel",
+            "Medical Centre", "Bookshop" };
+
+    static final String[] PHRASES = { "left it behind after class", "noticed it was gone in the evening",
+            "handed in at the front desk", "found it on a bench", "was under a table", "near the entrance",
+            "during the exam period", "after the football match" };
+
+    static final LocalDate TODAY = LocalDate.now();
+
+    private SyntheticData() {
+    }
+
+    // Zipf-like pick from [0, size): a few values get most of the traffic
+    static int skewed(Random random, int size) {
+        return (int) (Math.pow(random.nextDouble(), 2.5) * size);
+    }
+
+    static String title(Random random) {
+        return capitalize(COLOURS[random.nextInt(COLOURS.length)]) + " " + OBJECTS[skewed(random, OBJECTS.length)];
+    }
+
+    static String description(Random random, String title, String location) {
+        return title + " " + DETAILS[random.nextInt(DETAILS.length)] + ", "
+                + PHRASES[random.nextInt(PHRASES.length)] + " near the " + location;
+    }
+
+    static String location(Random random) {
+        return LOCATIONS[skewed(random, LOCATIONS.length)];
+    }
+
+    // Mostly the last few weeks, with a long tail over two years and fewer reports at weekends
+    static LocalDate date(Random random) {
+        while (true) {
+            LocalDate date = TODAY.minusDays((long) (Math.pow(random.nextDouble(), 4) * 730));
+            int weekday = date.getDayOfWeek().getValue();
+            if (weekday < 6 || random.nextInt(3) == 0) {
+                return date;
+            }
+        }
+    }
+
+    static String type(Random random) {
+        return random.nextInt(10) < 6 ? "lost" : "found";
+    }
+
+    // Search terms follow the data: one or two words, popular objects most often
+    static String searchQuery(Random random) {
+        String object = OBJECTS[skewed(random, OBJECTS.length)];
+        return random.nextInt(3) == 0 ? COLOURS[random.nextInt(COLOURS.length)] + " " + object : object;
+    }
+
+    static String username(int index) {
+        return "user" + index;
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
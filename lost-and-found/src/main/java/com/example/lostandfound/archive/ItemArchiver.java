@@ -0,0 +1,154 @@
+package com.example.lostandfound.archive;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.lostandfound.event.ItemChangedEvent;
+import com.example.lostandfound.event.ItemSnapshot;
+import com.example.lostandfound.model.Item;
+import com.example.lostandfound.repository.ItemRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+
+// Keeps the hot item table down to items people are still looking for.
+// Items resolved or deleted longer than closed-retention ago, and items dated before max-age, are
+// moved in batches: each batch is copied to item_archive and deleted from item in one transaction.
+// Deleted items are not copied, their rows and images are dropped for good. Because the bulk
+// statements bypass the entity listener, the batch publishes the ItemChangedEvents itself so the
+// search index, matcher, caches and feed forget the items after commit.
+@Component
+public class ItemArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(ItemArchiver.class);
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${lostandfound.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${lostandfound.archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${lostandfound.archive.closed-retention:P30D}")
+    private Duration closedRetention;
+
+    @Value("${lostandfound.archive.max-age:P365D}")
+    private Period maxAge;
+
+    private TransactionTemplate transactionTemplate;
+    private Timer runTimer;
+    private Counter archivedCounter;
+    private Counter purgedCounter;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        runTimer = Timer.builder("lostandfound.archive.runs")
+                .description("Duration of archiver runs")
+                .register(meterRegistry);
+        archivedCounter = moved("archived");
+        purgedCounter = moved("purged");
+    }
+
+    private Counter moved(String action) {
+        return Counter.builder("lostandfound.archive.items")
+                .description("Items removed from the hot table by the archiver")
+                .tag("action", action)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${lostandfound.archive.interval:PT1H}",
+            initialDelayString = "${lostandfound.archive.initial-delay:PT5M}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        archive();
+    }
+
+    // Moves everything that is due and returns the number of items taken out of the hot table
+    public int archive() {
+        Instant now = Instant.now();
+        Instant closedBefore = now.minus(closedRetention);
+        LocalDate datedBefore = LocalDate.ofInstant(now, ZoneOffset.UTC).minus(maxAge);
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        int total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> archiveBatch(closedBefore, datedBefore, now));
+            total += moved;
+        } while (moved == batchSize);
+        long nanos = sample.stop(runTimer);
+
+        if (total > 0) {
+            log.info("Archived {} items in {} ms", total, nanos / 1_000_000);
+        }
+        return total;
+    }
+
+    // The batch's rows are locked first, then re-read; every statement after the lock repeats the
+    // eligibility check, so an item reopened or edited after the lock was requested is left alone
+    // and the events describe exactly the rows that were moved
+    private int archiveBatch(Instant closedBefore, LocalDate datedBefore, Instant now) {
+        List<Long> locked = itemRepository.lockArchivable(closedBefore, datedBefore, batchSize);
+        if (locked.isEmpty()) {
+            return 0;
+        }
+        List<ItemSnapshot> items = itemRepository.findArchivable(locked, closedBefore, datedBefore);
+        if (items.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> ids = new ArrayList<>(items.size());
+        List<Long> kept = new ArrayList<>(items.size());
+        for (ItemSnapshot item : items) {
+            ids.add(item.getId());
+            if (!Item.DELETED.equals(item.getStatus())) {
+                kept.add(item.getId());
+            }
+        }
+        if (!kept.isEmpty()) {
+            itemRepository.copyToArchive(kept, closedBefore, datedBefore, now);
+        }
+        itemRepository.deleteArchivable(ids, closedBefore, datedBefore);
+
+        // Delivered to the transactional listeners only if this batch commits
+        for (ItemSnapshot item : items) {
+            eventPublisher.publishEvent(Item.DELETED.equals(item.getStatus())
+                    ? ItemChangedEvent.deleted(item)
+                    : ItemChangedEvent.archived(item));
+        }
+        archivedCounter.increment(kept.size());
+        purgedCounter.increment(ids.size() - kept.size());
+        return items.size();
+    }
+}
@@ -3,11 +3,17 @@ package com.example.lostandfound.controller;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -15,9 +21,17 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.example.lostandfound.dto.LoginRequest;
 import com.example.lostandfound.model.User;
+import com.example.lostandfound.ratelimit.RateLimiter;
 import com.example.lostandfound.repository.UserRepository;
+import com.example.lostandfound.security.CachedUser;
 import com.example.lostandfound.security.JwtUtil;
+import com.example.lostandfound.security.PasswordHashingService;
+import com.example.lostandfound.security.UserCache;
 
+// Password hashing runs on PasswordHashingService's pool; these endpoints complete asynchronously
+// and release the request thread while BCrypt works. What follows the hash (saving the user,
+// signing the token) runs on the application task executor, so the hashing threads never wait
+// on the database and the CPU pool's queue only ever holds BCrypt work.
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
@@ -26,39 +40,88 @@ public class AuthController {
     private UserRepository userRepository;
 
     @Autowired
-    private BCryptPasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
 
     @Autowired
     private JwtUtil jwtUtil;
 
-    @PostMapping("/register")
-    public ResponseEntity<User> addUser(@RequestBody User newUser) {
-        newUser.setPassword(passwordEncoder.encode(newUser.getPassword()));
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private RateLimiter rateLimiter;
 
+    @Autowired
+    @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    private Executor completionExecutor;
+
+    @PostMapping("/register")
+    public CompletableFuture<ResponseEntity<?>> addUser(@RequestBody User newUser) {
         if (newUser.getRole() == null || newUser.getRole().isEmpty()) {
             newUser.setRole("ROLE_USER");
         }
 
-        User savedUser = userRepository.save(newUser);
-        return ResponseEntity.ok(savedUser);
+        CompletableFuture<String> encodedPassword;
+        try {
+            encodedPassword = passwordHashingService.encode(newUser.getPassword());
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(overloaded());
+        }
+
+        return encodedPassword.thenApplyAsync(encoded -> {
+            newUser.setPassword(encoded);
+            try {
+                User savedUser = userRepository.save(newUser);
+                return ResponseEntity.ok(savedUser);
+            } catch (DataIntegrityViolationException e) {
+                // usernames are unique in the schema
+                return ResponseEntity.status(HttpStatus.CONFLICT).body("Username already taken: " + newUser.getUsername());
+            }
+        }, completionExecutor);
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest) {
-        Optional<User> optionalUser = userRepository.findByUsername(loginRequest.getUsername());
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody LoginRequest loginRequest) {
+        // Counted per username whether or not it exists, before any BCrypt work
+        long wait = rateLimiter.acquireLogin(loginRequest.getUsername());
+        if (wait > 0) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, RateLimiter.retryAfterSeconds(wait))
+                    .body("Too many login attempts for this user, please retry later"));
+        }
+
+        Optional<CachedUser> optionalUser = userCache.findByUsername(loginRequest.getUsername());
 
         if(optionalUser.isPresent()){
-            User user = optionalUser.get();
-            if (passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
-                String token = jwtUtil.generateToken(user.getUsername());
-                Map<String, String> response = new HashMap<>();
-                response.put("token", token);
-                return ResponseEntity.ok(response);
-            } else {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid credentials");
+            CachedUser user = optionalUser.get();
+
+            CompletableFuture<Boolean> matches;
+            try {
+                matches = passwordHashingService.matches(loginRequest.getPassword(), user.getPassword());
+            } catch (RejectedExecutionException e) {
+                return CompletableFuture.completedFuture(overloaded());
             }
+
+            return matches.thenApplyAsync(valid -> {
+                if (valid) {
+                    String token = jwtUtil.generateToken(user.getUsername());
+                    Map<String, String> response = new HashMap<>();
+                    response.put("token", token);
+                    return ResponseEntity.ok(response);
+                } else {
+                    return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid credentials");
+                }
+            }, completionExecutor);
         } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid credentials: User Not Found For: " + loginRequest.getUsername());
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body("Invalid credentials: User Not Found For: " + loginRequest.getUsername()));
         }
     }
+
+    // The hashing queue is full: fail fast and let the client back off
+    private ResponseEntity<?> overloaded() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Too many authentication requests, please retry shortly");
+    }
 }
@@ -1,32 +1,78 @@
 package com.example.lostandfound.controller;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
 
+import com.example.lostandfound.dto.BatchItemResultDTO;
 import com.example.lostandfound.dto.ContactInfoDTO;
+import com.example.lostandfound.dto.ContactRequestDTO;
+import com.example.lostandfound.dto.ItemMatchDTO;
+import com.example.lostandfound.dto.ItemStatusDTO;
 import com.example.lostandfound.dto.PublicItemDTO;
+import com.example.lostandfound.dto.SearchFacetsDTO;
+import com.example.lostandfound.event.ItemSnapshot;
+import com.example.lostandfound.image.ImageStorage;
 import com.example.lostandfound.model.Item;
 import com.example.lostandfound.model.User;
+import com.example.lostandfound.notification.NotificationOutbox;
+import com.example.lostandfound.repository.ArchivedItemRepository;
 import com.example.lostandfound.repository.ItemRepository;
+import com.example.lostandfound.repository.ItemWrite;
 import com.example.lostandfound.repository.UserRepository;
+import com.example.lostandfound.search.GeoArea;
+import com.example.lostandfound.search.ItemMatch;
+import com.example.lostandfound.search.ItemMatcher;
+import com.example.lostandfound.search.ItemSearchCriteria;
+import com.example.lostandfound.search.ItemSearchIndex;
+import com.example.lostandfound.search.SearchResultCache;
+import com.example.lostandfound.security.CachedUser;
+import com.example.lostandfound.security.UserCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.servlet.http.HttpServletResponse;
 
 @RestController
 @RequestMapping("/api/items")
@@ -35,35 +81,128 @@ public class ItemController {
     @Autowired
     private ItemRepository itemRepository;
 
+    @Autowired
+    private ArchivedItemRepository archivedItemRepository;
+
     @Autowired
     private UserRepository userRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private ItemSearchIndex itemSearchIndex;
+
+    @Autowired
+    private SearchResultCache searchResultCache;
+
+    @Autowired
+    private ItemMatcher itemMatcher;
+
+    @Autowired
+    private NotificationOutbox notificationOutbox;
+
+    @Autowired
+    private ImageStorage imageStorage;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int EXPORT_BATCH_SIZE = 500;
+    private static final int MAX_LOCATION_FACETS = 20;
+    private static final List<String> FACET_INTERVALS = List.of("day", "month", "year");
+    private static final List<String> OWNER_STATUSES = List.of(Item.OPEN, Item.CLAIMED, Item.RESOLVED);
+    
+    @Value("${lostandfound.items.page-size.default:50}")
+    private int defaultPageSize;
+
+    @Value("${lostandfound.items.page-size.max:200}")
+    private int maxPageSize;
+
+    @Value("${lostandfound.items.batch.max-size:500}")
+    private int maxBatchSize;
+
+    @Value("${lostandfound.search.geo.max-radius-km:100}")
+    private double maxRadiusKm;
     
     @GetMapping
-    public List<Item> getAllItems() {
-        return itemRepository.findAll();
+    public ResponseEntity<List<PublicItemDTO>> getAllItems(
+        @RequestParam(required = false) Integer limit,
+        @RequestParam(required = false) String pageToken) {
+
+        int pageSize = pageSize(limit);
+        Long afterId = PageCursor.decode(pageToken);
+
+        // Fetch one extra row to know whether there is a next page
+        List<PublicItemDTO> items = itemRepository.findPublicItemsAfter(
+                afterId != null ? afterId : 0L, PageRequest.of(0, pageSize + 1));
+        return page(items, pageSize, PublicItemDTO::getId, null);
     }
 
+    // Streams every item as newline-delimited JSON straight from a database cursor, so memory
+    // stays flat however large the table is. Meant for bulk consumers such as the nightly sync.
+    @GetMapping(value = "/export", produces = NDJSON)
+    @Transactional(readOnly = true)
+    public void exportItems(HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+        ObjectWriter writer = objectMapper.writerFor(PublicItemDTO.class);
+        OutputStream out = response.getOutputStream();
+        try (Stream<Item> items = itemRepository.streamAllOrderedById()) {
+            int written = 0;
+            Iterator<Item> iterator = items.iterator();
+            while (iterator.hasNext()) {
+                out.write(writer.writeValueAsBytes(convertToPublicDTO(iterator.next())));
+                out.write('\n');
+
+                // Detach what has been written so the persistence context doesn't grow with the export
+                if (++written % EXPORT_BATCH_SIZE == 0) {
+                    entityManager.clear();
+                    out.flush();
+                }
+            }
+        }
+        out.flush();
+    }
+
+    // The ETag comes from the row's version, so Spring answers a matching If-None-Match with 304
+    // and skips serializing the item
     @GetMapping("/{id}")
     public ResponseEntity<Item> getItem(@PathVariable Long id) {
-        Optional<Item> item = itemRepository.findById(id);
+        Optional<Item> item = findNotDeleted(id);
 
         if (item.isPresent()) {
-            return ResponseEntity.ok(item.get());
+            return ResponseEntity.ok().eTag(etag(item.get())).body(item.get());
         }
         
         return ResponseEntity.notFound().build();
     }
 
     @PostMapping
+    @Transactional
     public ResponseEntity<Item> createItem(@RequestBody Item newItem) {
+        if (!GeoArea.isValid(newItem.getLatitude(), newItem.getLongitude())
+                || isUploadedImage(newItem.getImageUrl())) {
+            return ResponseEntity.badRequest().build();
+        }
+
         // Get the currently authenticated user
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String username = authentication.getName();
 
-        // Load the user from the database using their username
-        Optional<User> optionalUser = userRepository.findByUsername(username);
+        // Resolve the user through the shared cache; usually no query since the JWT filter just loaded it
+        Optional<CachedUser> optionalUser = userCache.findByUsername(username);
         if(optionalUser.isPresent()) {
-            newItem.setUser(optionalUser.get());
+            // Only the foreign key is needed, a reference avoids loading the user row
+            newItem.setUser(userRepository.getReferenceById(optionalUser.get().getId()));
         } else {
             // If the user is not found, return an error response or handle as needed
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
@@ -73,79 +212,456 @@ public class ItemController {
         return ResponseEntity.ok(savedItem);
     }
 
-    @PutMapping("/{id}")
-    public ResponseEntity<Item> updateItem(@PathVariable Long id, @RequestBody Item updatedItem) {
-        Optional<Item> optionalItem = itemRepository.findById(id);
+    // Bulk intake: the owner is resolved once and all valid items go to the database in JDBC batches.
+    // Invalid entries are reported per index and don't stop the rest of the batch.
+    @PostMapping("/batch")
+    @Transactional
+    public ResponseEntity<List<BatchItemResultDTO>> createItems(@RequestBody List<Item> newItems) {
+        if (newItems.size() > maxBatchSize) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
 
-        if (!optionalItem.isPresent()) {
-            return ResponseEntity.notFound().build();
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Optional<CachedUser> optionalUser = userCache.findByUsername(authentication.getName());
+        if (!optionalUser.isPresent()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
+        User owner = userRepository.getReferenceById(optionalUser.get().getId());
 
-        Item item = optionalItem.get();
+        BatchItemResultDTO[] results = new BatchItemResultDTO[newItems.size()];
+        List<Item> accepted = new ArrayList<>();
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        for (int i = 0; i < newItems.size(); i++) {
+            Item item = newItems.get(i);
+            String error = validate(item);
+            if (error != null) {
+                results[i] = BatchItemResultDTO.rejected(i, error);
+                continue;
+            }
+            item.setId(null);
+            item.setUser(owner);
+            accepted.add(item);
+            acceptedIndexes.add(i);
+        }
 
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String currentUsername = auth.getName();
+        List<Item> saved = itemRepository.saveAll(accepted);
+        itemRepository.flush();
+        for (int i = 0; i < saved.size(); i++) {
+            results[acceptedIndexes.get(i)] = BatchItemResultDTO.created(acceptedIndexes.get(i), saved.get(i).getId());
+        }
 
-        if (!item.getUser().getUsername().equals(currentUsername)) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        return ResponseEntity.ok(Arrays.asList(results));
+    }
+
+    @PutMapping("/{id}")
+    @Transactional
+    // A single UPDATE that checks owner, status and If-Match itself; the item is never loaded
+    // unless the write is refused
+    public ResponseEntity<PublicItemDTO> updateItem(@PathVariable Long id, @RequestBody Item updatedItem,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (!GeoArea.isValid(updatedItem.getLatitude(), updatedItem.getLongitude())) {
+            return ResponseEntity.badRequest().build();
         }
-            
-        item.updateItem(updatedItem);
-        itemRepository.save(item);
-        return ResponseEntity.ok(item);
-        
+
+        // An uploaded image can be kept but not swapped in; the UPDATE checks it is the item's own
+        boolean uploadedImage = isUploadedImage(updatedItem.getImageUrl());
+        Optional<ItemWrite> write = itemRepository.updateOwned(id, currentUserId(), ifMatchVersions(ifMatch),
+                updatedItem, uploadedImage);
+        if (!write.isPresent()) {
+            return refusedWrite(id, item -> uploadedImage && !updatedItem.getImageUrl().equals(item.getImageUrl()));
+        }
+        return ResponseEntity.ok()
+                .eTag(etag(write.get().getVersion()))
+                .body(PublicItemDTO.of(write.get().getCurrent()));
     }
 
-    @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteItem(@PathVariable Long id) {
-        Optional<Item> optionalItem = itemRepository.findById(id);
+    // Stores the upload and points the item at it; the thumbnail follows asynchronously, so the
+    // response has thumbnailUrl unset until the worker is done
+    @PostMapping(value = "/{id}/image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Transactional
+    public ResponseEntity<PublicItemDTO> uploadImage(@PathVariable Long id, @RequestParam("file") MultipartFile file)
+            throws IOException {
+        Optional<Item> optionalItem = findNotDeleted(id);
         if (!optionalItem.isPresent()) {
             return ResponseEntity.notFound().build();
         }
 
         Item item = optionalItem.get();
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String currentUsername = auth.getName();
-
-        if (!item.getUser().getUsername().equals(currentUsername)) {
+        if (!isOwnedByCurrentUser(item)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
+        if (file.isEmpty() || !imageStorage.isSupported(file.getContentType())) {
+            return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).build();
+        }
+
+        String name = imageStorage.store(file);
+        item.setImageUrl(imageStorage.url(name));
+        item.setThumbnailUrl(null);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(convertToPublicDTO(item));
+    }
 
-        itemRepository.deleteById(id);
+    // Soft delete: the row only changes status, so the request is a cheap update and the archiver
+    // removes it in bulk later. To everyone else the item is gone right away.
+    @DeleteMapping("/{id}")
+    @Transactional
+    public ResponseEntity<Void> deleteItem(@PathVariable Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Optional<ItemWrite> write = itemRepository.changeStatusOwned(id, currentUserId(), ifMatchVersions(ifMatch),
+                Item.DELETED, Instant.now());
+        if (!write.isPresent()) {
+            return refusedWrite(id);
+        }
         return ResponseEntity.ok().build();
     }
+
+    // Lets the owner mark an item claimed or resolved, or reopen it. Resolved items drop out of
+    // listings and searches and are archived once they have been closed for a while.
+    @PutMapping("/{id}/status")
+    @Transactional
+    public ResponseEntity<PublicItemDTO> changeStatus(@PathVariable Long id, @RequestBody ItemStatusDTO request,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (request.getStatus() == null || !OWNER_STATUSES.contains(request.getStatus())) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Optional<ItemWrite> write = itemRepository.changeStatusOwned(id, currentUserId(), ifMatchVersions(ifMatch),
+                request.getStatus(), Instant.now());
+        if (!write.isPresent()) {
+            return refusedWrite(id);
+        }
+
+        // The owner gets a note of the change, queued in this transaction like every notification.
+        // Items don't record who claimed them, so there is no one else to tell.
+        ItemSnapshot current = write.get().getCurrent();
+        if (!current.getStatus().equals(write.get().getPrevious().getStatus())) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            Optional<CachedUser> owner = userCache.findByUsername(authentication.getName());
+            if (owner.isPresent() && owner.get().getEmail() != null) {
+                String status = current.getStatus().toLowerCase(Locale.ROOT);
+                notificationOutbox.enqueue(owner.get().getEmail(),
+                        "\"" + current.getTitle() + "\" is now " + status,
+                        "Your item \"" + current.getTitle() + "\" was marked " + status + "."
+                                + (current.isLive() ? "" : " It no longer appears in listings or searches."));
+            }
+        }
+        return ResponseEntity.ok()
+                .eTag(etag(write.get().getVersion()))
+                .body(PublicItemDTO.of(write.get().getCurrent()));
+    }
+
+    // Searches items the archiver has moved out of the live table. Kept separate from /search so
+    // everyday searches never touch the archive; filters mirror the live search.
+    @GetMapping("/archive")
+    public ResponseEntity<List<PublicItemDTO>> searchArchive(
+        @RequestParam(required = false) String title,
+        @RequestParam(required = false) String location,
+        @RequestParam(required = false) String q,
+        @RequestParam(required = false) String type,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        @RequestParam(required = false) Integer limit,
+        @RequestParam(required = false) String pageToken) {
+
+        int pageSize = pageSize(limit);
+        Long afterId = PageCursor.decode(pageToken);
+        List<PublicItemDTO> rows = archivedItemRepository.search(title, location, q, type, from, to, afterId,
+                PageRequest.of(0, pageSize + 1));
+        return page(rows, pageSize, PublicItemDTO::getId, null);
+    }
     
     @GetMapping("/search")
     public ResponseEntity<List<PublicItemDTO>> searchItems(
         @RequestParam(required = false) String title, 
         @RequestParam(required = false) String location, 
+        @RequestParam(required = false) String q, 
         @RequestParam(required = false) String type, 
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        @RequestParam(required = false) Double lat,
+        @RequestParam(required = false) Double lng,
+        @RequestParam(required = false) Double radiusKm,
+        @RequestParam(required = false) List<Double> bbox,
+        @RequestParam(required = false) Integer limit,
+        @RequestParam(required = false) String pageToken) {
 
-        List<Item> items = itemRepository.searchItems(title, location, type, date);
-        List<PublicItemDTO> publicItems = items.stream()
-                .map(this::convertToPublicDTO)
-                .collect(Collectors.toList());
+        GeoArea area;
+        try {
+            area = area(lat, lng, radiusKm, bbox);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
 
-        return ResponseEntity.ok(publicItems);
+        ItemSearchCriteria criteria = new ItemSearchCriteria(title, location, q, type, date, area);
+        criteria.setDateFrom(from);
+        criteria.setDateTo(to);
+        int pageSize = pageSize(limit);
+        Long afterId = PageCursor.decode(pageToken);
+
+        // Repeat searches are served from the result cache until a write touches their type/date scope.
+        // The ETag lets Spring answer a matching If-None-Match with 304 and no body.
+        SearchResultCache.CachedResult result = searchResultCache.get(criteria, afterId, pageSize + 1,
+                () -> runSearch(criteria, afterId, pageSize + 1));
+        return page(result.getRows(), pageSize, PublicItemDTO::getId, result.getEtag());
+    }
+
+    // Counts for narrowing a search, served from counters kept by the search index instead of the table.
+    // interval picks the date buckets: day, month (default) or year.
+    @GetMapping("/search/facets")
+    public ResponseEntity<SearchFacetsDTO> searchFacets(
+        @RequestParam(required = false) String type,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        @RequestParam(required = false) String location,
+        @RequestParam(defaultValue = "month") String interval) {
+        if (!FACET_INTERVALS.contains(interval)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Optional<SearchFacetsDTO> facets = itemSearchIndex.facets(type, from, to, location, interval,
+                MAX_LOCATION_FACETS);
+        if (!facets.isPresent()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .build();
+        }
+        return ResponseEntity.ok(facets.get());
+    }
+
+    // Either a circle (lat, lng and radiusKm) or a box (bbox=south,west,north,east), or no area at all
+    private GeoArea area(Double lat, Double lng, Double radiusKm, List<Double> bbox) {
+        boolean circle = lat != null || lng != null || radiusKm != null;
+        if (bbox != null) {
+            if (circle || bbox.size() != 4 || bbox.contains(null)) {
+                throw new IllegalArgumentException("Give either lat/lng/radiusKm or bbox=south,west,north,east");
+            }
+            return GeoArea.box(bbox.get(0), bbox.get(1), bbox.get(2), bbox.get(3));
+        }
+        if (!circle) {
+            return null;
+        }
+        if (lat == null || lng == null || radiusKm == null || radiusKm > maxRadiusKm) {
+            throw new IllegalArgumentException("Radius search needs lat, lng and radiusKm up to " + maxRadiusKm);
+        }
+        return GeoArea.circle(lat, lng, radiusKm);
+    }
+
+    private List<PublicItemDTO> runSearch(ItemSearchCriteria criteria, Long afterId, int maxResults) {
+        // Serve from the inverted index when possible, the LIKE query scans the whole table
+        Optional<List<ItemSnapshot>> indexed = itemSearchIndex.search(criteria, afterId, maxResults);
+        if (indexed.isPresent()) {
+            searchResults("index").record(indexed.get().size());
+            return indexed.get().stream()
+                    .map(ItemController::convertToPublicDTO)
+                    .collect(Collectors.toList());
+        }
+
+        List<PublicItemDTO> rows = itemRepository.searchItems(criteria, afterId, PageRequest.of(0, maxResults));
+        searchResults("database").record(rows.size());
+        return rows;
+    }
+
+    // Rows produced per search that missed the result cache, by where they came from
+    private DistributionSummary searchResults(String source) {
+        return DistributionSummary.builder("lostandfound.search.results")
+                .baseUnit("items")
+                .tag("source", source)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
     
     @GetMapping("/{id}/contact")
     public ResponseEntity<ContactInfoDTO> getContactInfo(@PathVariable Long id) {
-        // retrieve the item by ID
-        Optional<Item> optionalItem = itemRepository.findById(id);
-        if (!optionalItem.isPresent()) {
+        // only the owner's email is needed, so select just that column
+        Optional<ContactInfoDTO> contactInfo = itemRepository.findOwnerContactByItemId(id);
+        if (!contactInfo.isPresent()) {
             return ResponseEntity.notFound().build();
         }
 
+        return ResponseEntity.ok(contactInfo.get());
+    }
+    
+    // Asks the owner to get in touch. The e-mail is queued in the outbox within this transaction
+    // and sent by the dispatcher, so the mail server is never on the request path.
+    @PostMapping("/{id}/contact-requests")
+    @Transactional
+    public ResponseEntity<Void> requestContact(@PathVariable Long id, @RequestBody ContactRequestDTO request) {
+        Optional<Item> optionalItem = findNotDeleted(id);
+        Optional<ContactInfoDTO> owner = itemRepository.findOwnerContactByItemId(id);
+        if (!optionalItem.isPresent() || !owner.isPresent() || owner.get().getEmail() == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Optional<CachedUser> requester = userCache.findByUsername(authentication.getName());
+        if (!requester.isPresent()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
         Item item = optionalItem.get();
-        ContactInfoDTO contactInfo = new ContactInfoDTO();
-        contactInfo.setEmail(item.getUser().getEmail());
+        if (isOwnedByCurrentUser(item)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        String message = request.getMessage() != null ? request.getMessage() : "";
+        notificationOutbox.enqueue(owner.get().getEmail(),
+                "Someone is asking about \"" + item.getTitle() + "\"",
+                requester.get().getUsername() + " (" + requester.get().getEmail() + ") wrote about your item \""
+                        + item.getTitle() + "\":\n\n" + message);
+        return ResponseEntity.accepted().build();
+    }
+
+    // Likely counterparts of the opposite type (found items for a lost report and vice versa), best first
+    @GetMapping("/{id}/matches")
+    public ResponseEntity<List<ItemMatchDTO>> getMatches(@PathVariable Long id,
+        @RequestParam(required = false) Integer limit) {
+        if (!itemMatcher.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .build();
+        }
+
+        Optional<List<ItemMatch>> matches = itemMatcher.findMatches(id, pageSize(limit));
+        if (!matches.isPresent()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok(matches.get().stream()
+                .map(match -> new ItemMatchDTO(convertToPublicDTO(match.getItem()), match.getScore()))
+                .collect(Collectors.toList()));
+    }
+
+    private String validate(Item item) {
+        if (item == null) {
+            return "Item is empty";
+        }
+        if (item.getTitle() == null || item.getTitle().isBlank()) {
+            return "Title is required";
+        }
+        if (item.getType() == null || item.getType().isBlank()) {
+            return "Type is required";
+        }
+        if (!GeoArea.isValid(item.getLatitude(), item.getLongitude())) {
+            return "Latitude and longitude must be given together and within range";
+        }
+        if (isUploadedImage(item.getImageUrl())) {
+            return "Uploaded images can only be attached through /api/items/{id}/image";
+        }
+        return null;
+    }
 
-        return ResponseEntity.ok(contactInfo);
+    // Files under /api/images/ enter an item only through uploadImage, which always stores a new one.
+    // No two items ever share a file, so the thumbnail service can delete it along with its item.
+    private boolean isUploadedImage(String imageUrl) {
+        return imageStorage.nameOf(imageUrl) != null;
+    }
+
+    // Another request committed a change to the item between our read and our write. Hibernate's
+    // version check caught it in the UPDATE itself; the client has to re-read and retry.
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<Void> concurrentUpdate() {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+    }
+
+    // An ownership-checked write matched no row; only now is the item read, to tell the client why.
+    // Owned and not deleted means If-Match named an old version, or another write got in first.
+    private <T> ResponseEntity<T> refusedWrite(Long id) {
+        return refusedWrite(id, item -> false);
+    }
+
+    // Same, for writes with an extra check on the request that badRequest tells apart
+    private <T> ResponseEntity<T> refusedWrite(Long id, Predicate<Item> badRequest) {
+        Optional<Item> item = findNotDeleted(id);
+        if (!item.isPresent()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!isOwnedByCurrentUser(item.get())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        if (badRequest.test(item.get())) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).eTag(etag(item.get())).build();
+    }
+
+    // Strong validator: the version changes with every committed write to the row
+    private static String etag(Item item) {
+        return etag(item.getVersion());
+    }
+
+    private static String etag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    // The versions an If-Match accepts, or null when any will do (no header, or *). If-Match uses
+    // strong comparison, so weak tags and tags that aren't ours never match.
+    private static List<Long> ifMatchVersions(String ifMatch) {
+        if (ifMatch == null) {
+            return null;
+        }
+        List<Long> versions = new ArrayList<>();
+        for (String tag : ifMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.equals("*")) {
+                return null;
+            }
+            if (candidate.length() > 2 && candidate.startsWith("\"") && candidate.endsWith("\"")) {
+                try {
+                    versions.add(Long.parseLong(candidate.substring(1, candidate.length() - 1)));
+                } catch (NumberFormatException e) {
+                    // Not a version of ours, can't match
+                }
+            }
+        }
+        return versions;
+    }
+
+    // Null for an unknown user, which no ownership check will accept
+    private Long currentUserId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return userCache.findByUsername(auth.getName()).map(CachedUser::getId).orElse(null);
+    }
+
+    // Soft-deleted items wait in the table for the archiver but are treated as gone
+    private Optional<Item> findNotDeleted(Long id) {
+        return itemRepository.findById(id).filter(item -> !Item.DELETED.equals(item.getStatus()));
+    }
+
+    // Compares owner ids so the owning user never has to be loaded
+    private boolean isOwnedByCurrentUser(Item item) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        Optional<CachedUser> currentUser = userCache.findByUsername(auth.getName());
+        return currentUser.isPresent() && item.getUser() != null
+                && currentUser.get().getId().equals(item.getUser().getId());
+    }
+
+    // Clamp the requested page size to the server limit
+    private int pageSize(Integer limit) {
+        if (limit == null) {
+            return defaultPageSize;
+        }
+        return Math.max(1, Math.min(limit, maxPageSize));
+    }
+
+    // rows holds up to pageSize + 1 entries; the extra one only signals that a next page exists
+    private <T> ResponseEntity<List<T>> page(List<T> rows, int pageSize, Function<T, Long> idOf, String etag) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (etag != null) {
+            response.eTag(etag);
+        }
+        if (rows.size() <= pageSize) {
+            return response.body(rows);
+        }
+
+        List<T> page = new ArrayList<>(rows.subList(0, pageSize));
+        String nextPageToken = PageCursor.encode(idOf.apply(page.get(pageSize - 1)));
+        return response
+                .header(PageCursor.NEXT_PAGE_TOKEN_HEADER, nextPageToken)
+                .body(page);
     }
     
-    private PublicItemDTO convertToPublicDTO(Item item) {
+    // Package-private and stateless so the benchmark module can measure it in isolation
+    static PublicItemDTO convertToPublicDTO(Item item) {
         return new PublicItemDTO(
             item.getId(),
             item.getTitle(), 
@@ -153,8 +669,16 @@ public class ItemController {
             item.getLocation(), 
             item.getDate(), 
             item.getType(), 
-            item.getImageUrl()
+            item.getImageUrl(),
+            item.getThumbnailUrl(),
+            item.getLatitude(),
+            item.getLongitude(),
+            item.getStatus()
         );
     }
 
+    static PublicItemDTO convertToPublicDTO(ItemSnapshot item) {
+        return PublicItemDTO.of(item);
+    }
+
 }
@@ -0,0 +1,44 @@
+package com.example.lostandfound.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.lostandfound.feed.ItemFeed;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+@RestController
+@RequestMapping("/api/items")
+public class ItemFeedController {
+
+    @Autowired
+    private ItemFeed itemFeed;
+
+    // Push alternative to polling /api/items/search: "created", "updated" and "deleted" events carrying
+    // the public item (just the id for deletes), and "resync" when events had to be dropped.
+    // Subscriptions are limited overall and per client address, like the rate limits keyed by remote address.
+    @GetMapping(value = "/feed", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribe(
+        @RequestParam(required = false) String type,
+        @RequestParam(required = false) String location,
+        HttpServletRequest request) {
+        SseEmitter emitter = itemFeed.subscribe(type, location, request.getRemoteAddr());
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .build();
+        }
+        // Tells nginx-style proxies not to buffer the stream
+        return ResponseEntity.ok()
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+}
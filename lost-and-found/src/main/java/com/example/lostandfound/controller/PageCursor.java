@@ -0,0 +1,40 @@
+package com.example.lostandfound.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+// Opaque keyset page token: encodes the id of the last row of the previous page
+final class PageCursor {
+
+    static final String NEXT_PAGE_TOKEN_HEADER = "X-Next-Page-Token";
+
+    private static final String PREFIX = "id:";
+
+    private PageCursor() {
+    }
+
+    static String encode(long lastId) {
+        byte[] raw = (PREFIX + lastId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    // Returns the id to seek after, or null for the first page
+    static Long decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new IllegalArgumentException("Unknown page token format");
+            }
+            return Long.parseLong(raw.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid page token");
+        }
+    }
+}
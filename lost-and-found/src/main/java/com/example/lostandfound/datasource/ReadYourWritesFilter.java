@@ -0,0 +1,88 @@
+package com.example.lostandfound.datasource;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Keeps a user's reads on the primary for a short window after they wrote something, so they
+// don't see their own change missing while the replica catches up. Everyone else, including
+// anonymous searches, keeps reading from the replica. Runs after the security filter chain.
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    @Value("${lostandfound.datasource.read-your-writes.window:PT5S}")
+    private Duration window;
+
+    @Value("${lostandfound.datasource.read-your-writes.max-users:100000}")
+    private long maxUsers;
+
+    // Usernames that wrote within the window
+    private Cache<String, Boolean> recentWriters;
+
+    @PostConstruct
+    void init() {
+        recentWriters = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String username = currentUsername();
+        if (username == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        if (!isSafe(request.getMethod())) {
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                // Recorded once the write has committed, also for failures that may have written part of a batch
+                recentWriters.put(username, Boolean.TRUE);
+            }
+            return;
+        }
+
+        boolean pinned = recentWriters.getIfPresent(username) != null;
+        if (pinned) {
+            RoutingDataSource.pinToPrimary();
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (pinned) {
+                RoutingDataSource.unpin();
+            }
+        }
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private static boolean isSafe(String method) {
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.lostandfound.datasource;
+
+import java.util.function.Supplier;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Sends read-only transactions to the replica and everything else to the primary.
+// The decision is made when a connection is first needed, so this must sit behind a
+// LazyConnectionDataSourceProxy: the transaction manager only marks the transaction read-only
+// after it has asked for the connection.
+public class RoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica";
+
+    // Set for requests that must see their own recent writes, see ReadYourWritesFilter
+    private static final ThreadLocal<Boolean> pinnedToPrimary = new ThreadLocal<>();
+
+    public static void pinToPrimary() {
+        pinnedToPrimary.set(Boolean.TRUE);
+    }
+
+    public static void unpin() {
+        pinnedToPrimary.remove();
+    }
+
+    // Runs work with its reads on the primary, leaving an outer pin in place
+    public static <T> T onPrimary(Supplier<T> work) {
+        if (pinnedToPrimary.get() != null) {
+            return work.get();
+        }
+        pinToPrimary();
+        try {
+            return work.get();
+        } finally {
+            unpin();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && pinnedToPrimary.get() == null) {
+            return REPLICA;
+        }
+        return PRIMARY;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.lostandfound.dto;
+
+public class BatchItemResultDTO {
+
+    public static final String CREATED = "CREATED";
+    public static final String REJECTED = "REJECTED";
+
+    private int index;
+    private Long id;
+    private String status;
+    private String error;
+
+    public BatchItemResultDTO() {
+    }
+
+    public BatchItemResultDTO(int index, Long id, String status, String error) {
+        this.index = index;
+        this.id = id;
+        this.status = status;
+        this.error = error;
+    }
+
+    public static BatchItemResultDTO created(int index, Long id) {
+        return new BatchItemResultDTO(index, id, CREATED, null);
+    }
+
+    public static BatchItemResultDTO rejected(int index, String error) {
+        return new BatchItemResultDTO(index, null, REJECTED, error);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
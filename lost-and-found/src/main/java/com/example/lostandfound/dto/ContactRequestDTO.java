@@ -0,0 +1,21 @@
+package com.example.lostandfound.dto;
+
+public class ContactRequestDTO {
+
+    private String message;
+
+    public ContactRequestDTO() {
+    }
+
+    public ContactRequestDTO(String message) {
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
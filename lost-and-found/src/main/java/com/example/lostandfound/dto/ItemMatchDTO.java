@@ -0,0 +1,30 @@
+package com.example.lostandfound.dto;
+
+public class ItemMatchDTO {
+
+    private PublicItemDTO item;
+    private double score;
+
+    public ItemMatchDTO() { }
+
+    public ItemMatchDTO(PublicItemDTO item, double score) {
+        this.item = item;
+        this.score = score;
+    }
+
+    public PublicItemDTO getItem() {
+        return item;
+    }
+
+    public void setItem(PublicItemDTO item) {
+        this.item = item;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+}
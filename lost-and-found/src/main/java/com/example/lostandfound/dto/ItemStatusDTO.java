@@ -0,0 +1,21 @@
+package com.example.lostandfound.dto;
+
+public class ItemStatusDTO {
+
+    private String status;
+
+    public ItemStatusDTO() {
+    }
+
+    public ItemStatusDTO(String status) {
+        this.status = status;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+}
@@ -2,6 +2,8 @@ package com.example.lostandfound.dto;
 
 import java.time.LocalDate;
 
+import com.example.lostandfound.event.ItemSnapshot;
+
 public class PublicItemDTO {
 
     private Long id;
@@ -11,11 +13,15 @@ public class PublicItemDTO {
     private LocalDate date;
     private String type;
     private String imageUrl;
+    private String thumbnailUrl;
+    private Double latitude;
+    private Double longitude;
+    private String status;
 
     public PublicItemDTO() { }
 
     public PublicItemDTO(Long id, String title, String description, String location, LocalDate date, String type,
-            String imageUrl) {
+            String imageUrl, String thumbnailUrl, Double latitude, Double longitude, String status) {
         this.id = id;
         this.title = title;
         this.description = description;
@@ -23,6 +29,26 @@ public class PublicItemDTO {
         this.date = date;
         this.type = type;
         this.imageUrl = imageUrl;
+        this.thumbnailUrl = thumbnailUrl;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.status = status;
+    }
+
+    public static PublicItemDTO of(ItemSnapshot item) {
+        return new PublicItemDTO(
+            item.getId(),
+            item.getTitle(),
+            item.getDescription(),
+            item.getLocation(),
+            item.getDate(),
+            item.getType(),
+            item.getImageUrl(),
+            item.getThumbnailUrl(),
+            item.getLatitude(),
+            item.getLongitude(),
+            item.getStatus()
+        );
     }
 
     public Long getId() {
@@ -79,5 +105,38 @@ public class PublicItemDTO {
 
     public void setImageUrl(String imageUrl) {
         this.imageUrl = imageUrl;
-    }    
+    }
+
+    // Small preview for result lists; null while it is being generated or when there is no uploaded image
+    public String getThumbnailUrl() {
+        return thumbnailUrl;
+    }
+
+    public void setThumbnailUrl(String thumbnailUrl) {
+        this.thumbnailUrl = thumbnailUrl;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
 }
@@ -0,0 +1,57 @@
+package com.example.lostandfound.dto;
+
+import java.util.Map;
+
+// Item counts for the search UI; each map is ordered by descending count, dates by date
+public class SearchFacetsDTO {
+
+    private long total;
+    private Map<String, Long> types;
+    private Map<String, Long> dates;
+    private Map<String, Long> locations;
+
+    public SearchFacetsDTO() {
+    }
+
+    public SearchFacetsDTO(long total, Map<String, Long> types, Map<String, Long> dates,
+            Map<String, Long> locations) {
+        this.total = total;
+        this.types = types;
+        this.dates = dates;
+        this.locations = locations;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public Map<String, Long> getTypes() {
+        return types;
+    }
+
+    public void setTypes(Map<String, Long> types) {
+        this.types = types;
+    }
+
+    // Keyed by bucket: 2025-02-14, 2025-02 or 2025 depending on the requested interval
+    public Map<String, Long> getDates() {
+        return dates;
+    }
+
+    public void setDates(Map<String, Long> dates) {
+        this.dates = dates;
+    }
+
+    // Case-folded location names, limited to the most common ones
+    public Map<String, Long> getLocations() {
+        return locations;
+    }
+
+    public void setLocations(Map<String, Long> locations) {
+        this.locations = locations;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.lostandfound.event;
+
+// Published for every item insert, update and delete. Listeners that keep derived
+// state (search index, caches, ...) should react after commit.
+public class ItemChangedEvent {
+
+    public enum Kind {
+        CREATED, UPDATED, DELETED, ARCHIVED
+    }
+
+    private final Kind kind;
+    private final ItemSnapshot previous;
+    private final ItemSnapshot current;
+
+    private ItemChangedEvent(Kind kind, ItemSnapshot previous, ItemSnapshot current) {
+        this.kind = kind;
+        this.previous = previous;
+        this.current = current;
+    }
+
+    public static ItemChangedEvent created(ItemSnapshot current) {
+        return new ItemChangedEvent(Kind.CREATED, null, current);
+    }
+
+    public static ItemChangedEvent updated(ItemSnapshot previous, ItemSnapshot current) {
+        return new ItemChangedEvent(Kind.UPDATED, previous, current);
+    }
+
+    public static ItemChangedEvent deleted(ItemSnapshot previous) {
+        return new ItemChangedEvent(Kind.DELETED, previous, null);
+    }
+
+    // Moved to the archive table: gone from the live set, but its images are kept
+    public static ItemChangedEvent archived(ItemSnapshot previous) {
+        return new ItemChangedEvent(Kind.ARCHIVED, previous, null);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    // State before the change, null for CREATED (and for UPDATED when it was never loaded)
+    public ItemSnapshot getPrevious() {
+        return previous;
+    }
+
+    // State after the change, null for DELETED and ARCHIVED
+    public ItemSnapshot getCurrent() {
+        return current;
+    }
+
+    public Long getItemId() {
+        return current != null ? current.getId() : previous.getId();
+    }
+}
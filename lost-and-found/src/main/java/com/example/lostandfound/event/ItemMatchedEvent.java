@@ -0,0 +1,27 @@
+package com.example.lostandfound.event;
+
+// Published when a new or edited item gains a likely counterpart of the opposite type
+public class ItemMatchedEvent {
+
+    private final Long itemId;
+    private final Long matchedItemId;
+    private final double score;
+
+    public ItemMatchedEvent(Long itemId, Long matchedItemId, double score) {
+        this.itemId = itemId;
+        this.matchedItemId = matchedItemId;
+        this.score = score;
+    }
+
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public Long getMatchedItemId() {
+        return matchedItemId;
+    }
+
+    public double getScore() {
+        return score;
+    }
+}
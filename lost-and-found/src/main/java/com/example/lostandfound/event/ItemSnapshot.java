@@ -0,0 +1,109 @@
+package com.example.lostandfound.event;
+
+import java.time.LocalDate;
+
+import com.example.lostandfound.model.Item;
+
+// Immutable copy of an item's state, safe to hand to other threads after the entity is detached
+public class ItemSnapshot {
+
+    private final Long id;
+    private final Long ownerId;
+    private final String title;
+    private final String description;
+    private final String location;
+    private final LocalDate date;
+    private final String type;
+    private final String imageUrl;
+    private final String thumbnailUrl;
+    private final Double latitude;
+    private final Double longitude;
+    private final String status;
+
+    public ItemSnapshot(Long id, Long ownerId, String title, String description, String location, LocalDate date,
+            String type, String imageUrl, String thumbnailUrl, Double latitude, Double longitude, String status) {
+        this.id = id;
+        this.ownerId = ownerId;
+        this.title = title;
+        this.description = description;
+        this.location = location;
+        this.date = date;
+        this.type = type;
+        this.imageUrl = imageUrl;
+        this.thumbnailUrl = thumbnailUrl;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.status = status;
+    }
+
+    public static ItemSnapshot of(Item item) {
+        Long ownerId = item.getUser() != null ? item.getUser().getId() : null;
+        return new ItemSnapshot(
+            item.getId(),
+            ownerId,
+            item.getTitle(),
+            item.getDescription(),
+            item.getLocation(),
+            item.getDate(),
+            item.getType(),
+            item.getImageUrl(),
+            item.getThumbnailUrl(),
+            item.getLatitude(),
+            item.getLongitude(),
+            item.getStatus()
+        );
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getOwnerId() {
+        return ownerId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public String getThumbnailUrl() {
+        return thumbnailUrl;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    // Only live items are searched, matched and counted
+    public boolean isLive() {
+        return Item.isLive(status);
+    }
+}
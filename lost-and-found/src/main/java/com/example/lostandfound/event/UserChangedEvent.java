@@ -0,0 +1,21 @@
+package com.example.lostandfound.event;
+
+// Published whenever a user row is inserted, updated or deleted so caches keyed by user can drop it
+public class UserChangedEvent {
+
+    private final Long userId;
+    private final String username;
+
+    public UserChangedEvent(Long userId, String username) {
+        this.userId = userId;
+        this.username = username;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+}
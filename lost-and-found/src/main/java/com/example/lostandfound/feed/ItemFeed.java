@@ -0,0 +1,338 @@
+package com.example.lostandfound.feed;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.lostandfound.dto.PublicItemDTO;
+import com.example.lostandfound.event.ItemChangedEvent;
+import com.example.lostandfound.event.ItemSnapshot;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// Fans committed item changes out to Server-Sent Events subscribers.
+//
+// Subscribers are async servlet requests, so an idle one holds a connection but no thread. Each has
+// a bounded buffer; publishing only offers to the buffers and never blocks on a client. A small pool
+// of sender threads drains a buffer whenever it has something in it, at most one thread per
+// subscriber at a time so events stay in order. When a slow client's buffer is full it is either
+// disconnected (it reconnects and reloads) or loses its oldest events and gets a "resync" event,
+// depending on lostandfound.feed.overflow.
+//
+// The feed is anonymous, so besides the overall limit each client address may only hold a few
+// subscriptions. Both limits are reserved before a subscriber is created and released exactly once
+// when it leaves.
+@Component
+public class ItemFeed {
+
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String DELETED = "deleted";
+    public static final String RESYNC = "resync";
+
+    private static final String DISCONNECT = "disconnect";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${lostandfound.feed.max-subscribers:20000}")
+    private int maxSubscribers;
+
+    @Value("${lostandfound.feed.max-subscribers-per-address:20}")
+    private int maxSubscribersPerAddress;
+
+    @Value("${lostandfound.feed.buffer-size:64}")
+    private int bufferSize;
+
+    @Value("${lostandfound.feed.overflow:disconnect}")
+    private String overflow;
+
+    @Value("${lostandfound.feed.timeout:PT30M}")
+    private Duration timeout;
+
+    @Value("${lostandfound.feed.sender-threads:4}")
+    private int senderThreads;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger reserved = new AtomicInteger();
+    private final ConcurrentHashMap<String, Integer> perAddress = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ThreadPoolExecutor senders;
+    private Counter droppedCounter;
+    private Counter disconnectedCounter;
+
+    @PostConstruct
+    void init() {
+        // A subscriber is queued at most once at a time, so the queue never needs more room than that
+        AtomicInteger count = new AtomicInteger();
+        senders = new ThreadPoolExecutor(senderThreads, senderThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxSubscribers),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "item-feed-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(senders, "itemFeed", Tags.empty()).bindTo(meterRegistry);
+        Gauge.builder("lostandfound.feed.subscribers", subscribers, Set::size)
+                .description("Connected item feed subscribers")
+                .register(meterRegistry);
+        droppedCounter = slowConsumers("dropped");
+        disconnectedCounter = slowConsumers("disconnected");
+    }
+
+    private Counter slowConsumers(String action) {
+        return Counter.builder("lostandfound.feed.overflows")
+                .description("Item feed events a slow subscriber could not take")
+                .tag("action", action)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.close(true);
+        }
+        senders.shutdown();
+    }
+
+    // Null when the overall or the client address's subscriber limit is reached. type and location
+    // (a case-insensitive substring) are optional filters; an update is delivered if the item matched
+    // before or after it.
+    public SseEmitter subscribe(String type, String location, String clientAddress) {
+        if (!reserve(clientAddress)) {
+            return null;
+        }
+
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, clientAddress, type,
+                location != null ? location.toLowerCase(Locale.ROOT) : null);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> subscriber.close(true));
+        emitter.onError(error -> subscriber.close(false));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    public int size() {
+        return subscribers.size();
+    }
+
+    private boolean reserve(String clientAddress) {
+        if (reserved.incrementAndGet() > maxSubscribers) {
+            reserved.decrementAndGet();
+            return false;
+        }
+        boolean[] accepted = new boolean[1];
+        perAddress.compute(clientAddress, (address, count) -> {
+            int current = count != null ? count : 0;
+            accepted[0] = current < maxSubscribersPerAddress;
+            return accepted[0] ? current + 1 : count;
+        });
+        if (!accepted[0]) {
+            reserved.decrementAndGet();
+        }
+        return accepted[0];
+    }
+
+    // Only the call that actually removes the subscriber gives its slots back
+    private void remove(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            perAddress.computeIfPresent(subscriber.clientAddress, (address, count) -> count > 1 ? count - 1 : null);
+            reserved.decrementAndGet();
+        }
+    }
+
+    // After the search index and caches, so a client refreshing on an event sees the change
+    @Order(30)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        // Dashboards show what listings and searches show: only live items. An item leaving that set
+        // (resolved, deleted, archived) is a deletion to them, one coming back is a creation.
+        ItemSnapshot previous = event.getPrevious() != null && event.getPrevious().isLive() ? event.getPrevious() : null;
+        ItemSnapshot current = event.getCurrent() != null && event.getCurrent().isLive() ? event.getCurrent() : null;
+        if (previous == null && current == null) {
+            return;
+        }
+        String name = previous == null ? CREATED : current == null ? DELETED : UPDATED;
+        Object data = current != null ? PublicItemDTO.of(current) : Map.of("id", event.getItemId());
+
+        // Serialized once, whatever the number of subscribers
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+
+        Message message = new Message(sequence.incrementAndGet(), name, json);
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.accepts(previous) || subscriber.accepts(current)) {
+                subscriber.offer(message);
+            }
+        }
+    }
+
+    // Comment lines keep proxies from closing idle connections and reveal clients that went away
+    @Scheduled(fixedDelayString = "${lostandfound.feed.heartbeat:PT30S}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offerHeartbeat();
+        }
+    }
+
+    private static final class Message {
+
+        private static final Message HEARTBEAT = new Message(0, null, null);
+
+        private final long id;
+        private final String name;
+        private final String json;
+
+        private Message(long id, String name, String json) {
+            this.id = id;
+            this.name = name;
+            this.json = json;
+        }
+    }
+
+    private final class Subscriber implements Runnable {
+
+        private final SseEmitter emitter;
+        private final String clientAddress;
+        private final String type;
+        private final String location;
+        private final ArrayBlockingQueue<Message> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean gap;
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter, String clientAddress, String type, String location) {
+            this.emitter = emitter;
+            this.clientAddress = clientAddress;
+            this.type = type;
+            this.location = location;
+        }
+
+        private boolean accepts(ItemSnapshot item) {
+            if (item == null) {
+                return false;
+            }
+            if (type != null && !type.equals(item.getType())) {
+                return false;
+            }
+            return location == null
+                    || (item.getLocation() != null && item.getLocation().toLowerCase(Locale.ROOT).contains(location));
+        }
+
+        private void offer(Message message) {
+            if (closed) {
+                return;
+            }
+            while (!buffer.offer(message)) {
+                if (DISCONNECT.equals(overflow)) {
+                    disconnectedCounter.increment();
+                    close(true);
+                    return;
+                }
+                if (buffer.poll() != null) {
+                    droppedCounter.increment();
+                    gap = true;
+                }
+            }
+            schedule();
+        }
+
+        private void offerHeartbeat() {
+            if (!closed && buffer.isEmpty() && buffer.offer(Message.HEARTBEAT)) {
+                schedule();
+            }
+        }
+
+        private void schedule() {
+            if (!scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                senders.execute(this);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+                close(true);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                Message message;
+                while (!closed && (message = buffer.poll()) != null) {
+                    if (gap) {
+                        gap = false;
+                        emitter.send(SseEmitter.event().name(RESYNC).data("{}", MediaType.APPLICATION_JSON));
+                    }
+                    if (message == Message.HEARTBEAT) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        emitter.send(SseEmitter.event()
+                                .id(Long.toString(message.id))
+                                .name(message.name)
+                                .data(message.json, MediaType.APPLICATION_JSON));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away; the container reports it through onError/onCompletion as well
+                close(false);
+            } finally {
+                scheduled.set(false);
+            }
+            // Picks up anything offered between the last poll and clearing the flag
+            if (!closed && !buffer.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void close(boolean complete) {
+            closed = true;
+            remove(this);
+            buffer.clear();
+            if (complete) {
+                emitter.complete();
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.lostandfound.image;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import jakarta.annotation.PostConstruct;
+
+// Uploaded images and their thumbnails on local disk. Every file gets a fresh random name and is
+// never rewritten, so it can be served with a long-lived immutable cache header.
+@Component
+public class ImageStorage {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageStorage.class);
+
+    static final String URL_PREFIX = "/api/images/";
+
+    private static final String THUMBNAIL_SUFFIX = "-thumb.jpg";
+
+    // Only names this class generated can be resolved, which also rules out path traversal
+    private static final Pattern NAME = Pattern.compile("[0-9a-f]{32}(-thumb\\.jpg|\\.jpg|\\.png|\\.gif)");
+
+    private static final Map<String, String> EXTENSIONS = Map.of(
+            "image/jpeg", "jpg",
+            "image/png", "png",
+            "image/gif", "gif");
+
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "jpg", "image/jpeg",
+            "png", "image/png",
+            "gif", "image/gif");
+
+    @Value("${lostandfound.images.dir:${java.io.tmpdir}/lostandfound-images}")
+    private Path directory;
+
+    @PostConstruct
+    void init() throws IOException {
+        Files.createDirectories(directory);
+    }
+
+    public boolean isSupported(String contentType) {
+        return contentType != null && EXTENSIONS.containsKey(contentType);
+    }
+
+    // Streams the upload to disk and returns the stored name. The file only appears under its
+    // final name once complete, so a reader never sees a partial image.
+    public String store(MultipartFile file) throws IOException {
+        String name = UUID.randomUUID().toString().replace("-", "") + "." + EXTENSIONS.get(file.getContentType());
+        Path temporary = Files.createTempFile(directory, "upload-", ".tmp");
+        try (InputStream in = file.getInputStream()) {
+            Files.copy(in, temporary, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temporary, directory.resolve(name), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        return name;
+    }
+
+    // Path of an existing stored file, empty for unknown or malformed names
+    public Optional<Path> resolve(String name) {
+        if (name == null || !NAME.matcher(name).matches()) {
+            return Optional.empty();
+        }
+        Path path = directory.resolve(name);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    // Where the thumbnail of an image is written; not guaranteed to exist yet
+    Path thumbnailPath(String imageName) {
+        return directory.resolve(thumbnailName(imageName));
+    }
+
+    String thumbnailName(String imageName) {
+        return imageName.substring(0, imageName.indexOf('.')) + THUMBNAIL_SUFFIX;
+    }
+
+    public String url(String name) {
+        return URL_PREFIX + name;
+    }
+
+    // Name of the stored file behind one of our URLs, or null for external URLs
+    public String nameOf(String url) {
+        if (url == null || !url.startsWith(URL_PREFIX)) {
+            return null;
+        }
+        String name = url.substring(URL_PREFIX.length());
+        return NAME.matcher(name).matches() ? name : null;
+    }
+
+    public String contentType(String name) {
+        return CONTENT_TYPES.get(name.substring(name.lastIndexOf('.') + 1));
+    }
+
+    public void delete(String name) {
+        if (name == null || !NAME.matcher(name).matches()) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(directory.resolve(name));
+        } catch (IOException e) {
+            log.warn("Could not delete image {}: {}", name, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.lostandfound.image;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.lostandfound.event.ItemChangedEvent;
+import com.example.lostandfound.event.ItemSnapshot;
+import com.example.lostandfound.model.Item;
+import com.example.lostandfound.repository.ItemRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// Scales uploaded images down to thumbnails on a small bounded pool, off the request threads.
+// Driven by ItemChangedEvent: a committed change to an item's image schedules its thumbnail, and
+// files no longer referenced by the item are removed.
+@Service
+public class ThumbnailService {
+
+    private static final Logger log = LoggerFactory.getLogger(ThumbnailService.class);
+
+    // Refuse to decode anything larger, a small compressed file can expand to gigabytes of pixels
+    private static final long MAX_PIXELS = 50_000_000L;
+
+    @Autowired
+    private ImageStorage imageStorage;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${lostandfound.images.thumbnail.size:320}")
+    private int thumbnailSize;
+
+    @Value("${lostandfound.images.thumbnail.threads:2}")
+    private int threads;
+
+    @Value("${lostandfound.images.thumbnail.queue-capacity:256}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new ThumbnailThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, "thumbnails", Tags.empty()).bindTo(meterRegistry);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    @Order(20)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        ItemSnapshot previous = event.getPrevious();
+        ItemSnapshot current = event.getCurrent();
+
+        // Stored files only reach an item through its own upload, so files it lets go of are its own
+        // to delete. Archived items keep their images, item_archive still points at them.
+        if (previous != null && event.getKind() != ItemChangedEvent.Kind.ARCHIVED) {
+            String previousImage = previous.getImageUrl();
+            String previousThumbnail = previous.getThumbnailUrl();
+            if (current == null || !Objects.equals(previousImage, current.getImageUrl())) {
+                imageStorage.delete(imageStorage.nameOf(previousImage));
+            }
+            if (current == null || !Objects.equals(previousThumbnail, current.getThumbnailUrl())) {
+                imageStorage.delete(imageStorage.nameOf(previousThumbnail));
+            }
+        }
+
+        if (current != null && current.getThumbnailUrl() == null) {
+            String imageName = imageStorage.nameOf(current.getImageUrl());
+            if (imageName != null && (previous == null || !Objects.equals(previous.getImageUrl(), current.getImageUrl()))) {
+                schedule(current.getId(), imageName);
+            }
+        }
+    }
+
+    private void schedule(Long itemId, String imageName) {
+        try {
+            executor.execute(() -> generate(itemId, imageName));
+        } catch (RejectedExecutionException e) {
+            // The item keeps working with just the original image; clients fall back to imageUrl
+            log.warn("Thumbnail queue full, item {} will have no thumbnail", itemId);
+        }
+    }
+
+    private void generate(Long itemId, String imageName) {
+        try {
+            Optional<Path> image = imageStorage.resolve(imageName);
+            if (!image.isPresent()) {
+                return;
+            }
+            BufferedImage thumbnail = render(image.get());
+            if (thumbnail == null) {
+                log.warn("Image {} of item {} could not be decoded", imageName, itemId);
+                return;
+            }
+
+            Path target = imageStorage.thumbnailPath(imageName);
+            Path temporary = Files.createTempFile(target.getParent(), "thumb-", ".tmp");
+            try {
+                ImageIO.write(thumbnail, "jpg", temporary.toFile());
+                Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+            attach(itemId, imageName);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Thumbnail for item {} failed: {}", itemId, e.getMessage());
+        }
+    }
+
+    // Decodes with subsampling so a large photo is never held in memory at full resolution
+    private BufferedImage render(Path image) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(image.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_PIXELS) {
+                    return null;
+                }
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, Math.max(width, height) / (thumbnailSize * 2));
+                param.setSourceSubsampling(step, step, 0, 0);
+                BufferedImage source = reader.read(0, param);
+                return scale(source);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage scale(BufferedImage source) {
+        double ratio = Math.min(1.0, (double) thumbnailSize / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+
+        // JPEG has no alpha channel, so transparent areas are flattened onto white
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    // Goes through the entity so the change reaches the search index and caches like any other write
+    private void attach(Long itemId, String imageName) {
+        String thumbnailName = imageStorage.thumbnailName(imageName);
+        boolean attached;
+        try {
+            attached = tryAttach(itemId, imageName);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // The owner saved the item at the same moment; re-read it and try once more
+            attached = tryAttach(itemId, imageName);
+        }
+        if (!attached) {
+            imageStorage.delete(thumbnailName);
+        }
+    }
+
+    private boolean tryAttach(Long itemId, String imageName) {
+        String imageUrl = imageStorage.url(imageName);
+        String thumbnailUrl = imageStorage.url(imageStorage.thumbnailName(imageName));
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            Optional<Item> item = itemRepository.findById(itemId);
+            // The image may have been replaced or the item deleted while the thumbnail was rendered
+            if (!item.isPresent() || !imageUrl.equals(item.get().getImageUrl())) {
+                return false;
+            }
+            item.get().setThumbnailUrl(thumbnailUrl);
+            return true;
+        }));
+    }
+
+    private static final class ThumbnailThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "thumbnail-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.lostandfound.model;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+// Read-only view of an item moved out of the hot table by ItemArchiver; rows are only ever
+// written by ItemRepository.copyToArchive
+@Entity
+@Table(name = "item_archive")
+public class ArchivedItem {
+
+    @Id
+    private Long id;
+
+    private Long userId;
+    private String title;
+    private String description;
+    private String location;
+    private LocalDate date;
+    private String type;
+    private String imageUrl;
+    private String thumbnailUrl;
+    private Double latitude;
+    private Double longitude;
+    private String status;
+    private Instant closedAt;
+    private String titleLower;
+    private String locationLower;
+    private Instant archivedAt;
+
+    public ArchivedItem() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public String getThumbnailUrl() {
+        return thumbnailUrl;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public Instant getClosedAt() {
+        return closedAt;
+    }
+
+    public Instant getArchivedAt() {
+        return archivedAt;
+    }
+}
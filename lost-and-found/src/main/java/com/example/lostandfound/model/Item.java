@@ -1,23 +1,47 @@
 package com.example.lostandfound.model;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Transient;
+import jakarta.persistence.Version;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Objects;
+
+import com.example.lostandfound.event.ItemSnapshot;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 @Entity
+@EntityListeners(ItemEntityListener.class)
 public class Item {
+
+    public static final String OPEN = "OPEN";
+    public static final String CLAIMED = "CLAIMED";
+    public static final String RESOLVED = "RESOLVED";
+    public static final String DELETED = "DELETED";
     
+    // Pooled sequence instead of IDENTITY so inserts can be sent in JDBC batches
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_seq")
+    @SequenceGenerator(name = "item_seq", sequenceName = "item_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    // Lazy and never serialized: responses must not drag the owner (and its password hash) along
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
+    @JsonIgnore
     private User user;
 
     private String title;
@@ -27,6 +51,35 @@ public class Item {
     private String type;
     private String imageUrl;
 
+    // Optional position of the report in WGS84 degrees; both or neither are set
+    private Double latitude;
+    private Double longitude;
+
+    // Changed only through changeStatus, never from a request body
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String status = OPEN;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant closedAt;
+
+    // Bumped by Hibernate on every update and checked in its WHERE clause, so a write based on a stale
+    // read fails instead of overwriting someone else's change. Doubles as the item's ETag.
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long version;
+
+    // Set by the thumbnail worker once an uploaded image has been scaled down
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String thumbnailUrl;
+
+    // Lower-cased copies of title and location backing the case-insensitive SQL search
+    private String titleLower;
+    private String locationLower;
+
+    // State as last read from or written to the database, used to describe updates
+    @Transient
+    private ItemSnapshot loadedSnapshot;
+
     public Item() {
     }
     
@@ -95,6 +148,54 @@ public class Item {
         this.imageUrl = imageUrl;
     }
 
+    public String getThumbnailUrl() {
+        return thumbnailUrl;
+    }
+
+    public void setThumbnailUrl(String thumbnailUrl) {
+        this.thumbnailUrl = thumbnailUrl;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public Instant getClosedAt() {
+        return closedAt;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    // Resolving or deleting starts the retention clock of ItemArchiver; reopening stops it
+    public void changeStatus(String status, Instant now) {
+        if (!Objects.equals(this.status, status)) {
+            this.closedAt = isLive(status) ? null : now;
+        }
+        this.status = status;
+    }
+
+    public static boolean isLive(String status) {
+        return OPEN.equals(status) || CLAIMED.equals(status);
+    }
+
     public User getUser() {
         return user;
     }
@@ -103,12 +204,33 @@ public class Item {
         this.user = user;
     }
 
+    @PrePersist
+    @PreUpdate
+    void updateSearchColumns() {
+        this.titleLower = title != null ? title.toLowerCase(Locale.ROOT) : null;
+        this.locationLower = location != null ? location.toLowerCase(Locale.ROOT) : null;
+    }
+
+    ItemSnapshot getLoadedSnapshot() {
+        return loadedSnapshot;
+    }
+
+    void setLoadedSnapshot(ItemSnapshot loadedSnapshot) {
+        this.loadedSnapshot = loadedSnapshot;
+    }
+
     public Long updateItem(Item updatedItem) {
         this.setTitle(updatedItem.getTitle());
         this.setDescription(updatedItem.getDescription());
         this.setLocation(updatedItem.getLocation());
         this.setDate(updatedItem.getDate());
         this.setType(updatedItem.getType());
+        this.setLatitude(updatedItem.getLatitude());
+        this.setLongitude(updatedItem.getLongitude());
+        // A thumbnail only ever belongs to the image it was made from
+        if (!Objects.equals(this.imageUrl, updatedItem.getImageUrl())) {
+            this.setThumbnailUrl(null);
+        }
         this.setImageUrl(updatedItem.getImageUrl());
 
         return this.id;
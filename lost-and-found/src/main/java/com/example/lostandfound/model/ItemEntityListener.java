@@ -0,0 +1,46 @@
+package com.example.lostandfound.model;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.example.lostandfound.event.ItemChangedEvent;
+import com.example.lostandfound.event.ItemSnapshot;
+
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+// Hibernate resolves this through Spring's bean container, so it can publish application events.
+// Every write to Item goes through here, whether it came from a controller or straight from a repository.
+@Component
+public class ItemEntityListener {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PostLoad
+    public void onLoad(Item item) {
+        item.setLoadedSnapshot(ItemSnapshot.of(item));
+    }
+
+    @PostPersist
+    public void onPersist(Item item) {
+        ItemSnapshot current = ItemSnapshot.of(item);
+        eventPublisher.publishEvent(ItemChangedEvent.created(current));
+        item.setLoadedSnapshot(current);
+    }
+
+    @PostUpdate
+    public void onUpdate(Item item) {
+        ItemSnapshot current = ItemSnapshot.of(item);
+        eventPublisher.publishEvent(ItemChangedEvent.updated(item.getLoadedSnapshot(), current));
+        item.setLoadedSnapshot(current);
+    }
+
+    @PostRemove
+    public void onRemove(Item item) {
+        eventPublisher.publishEvent(ItemChangedEvent.deleted(ItemSnapshot.of(item)));
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.lostandfound.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+// Row of the shared rate limiter; only ever written through RateLimitBucketRepository's statements
+@Entity
+@Table(name = "rate_limit_bucket")
+public class RateLimitBucket {
+
+    @Id
+    @Column(name = "bucket_key")
+    private String key;
+
+    private long tat;
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getTat() {
+        return tat;
+    }
+}
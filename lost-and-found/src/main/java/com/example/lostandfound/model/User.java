@@ -1,12 +1,14 @@
 package com.example.lostandfound.model;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 
 @Entity
+@EntityListeners(UserEntityListener.class)
 @Table(name = "users")
 public class User {
     
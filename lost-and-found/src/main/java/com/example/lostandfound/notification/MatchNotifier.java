@@ -0,0 +1,56 @@
+package com.example.lostandfound.notification;
+
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.lostandfound.dto.ContactInfoDTO;
+import com.example.lostandfound.event.ItemMatchedEvent;
+import com.example.lostandfound.model.Item;
+import com.example.lostandfound.repository.ItemRepository;
+
+// Tells both owners about a new likely lost/found pair found by the matcher
+@Component
+public class MatchNotifier {
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private NotificationOutbox notificationOutbox;
+
+    // Matches are detected after the item write has committed, so this queues in its own transaction
+    @EventListener
+    @Transactional
+    public void onItemMatched(ItemMatchedEvent event) {
+        Optional<Item> item = itemRepository.findById(event.getItemId());
+        Optional<Item> matched = itemRepository.findById(event.getMatchedItemId());
+        Optional<ContactInfoDTO> itemOwner = itemRepository.findOwnerContactByItemId(event.getItemId());
+        Optional<ContactInfoDTO> matchedOwner = itemRepository.findOwnerContactByItemId(event.getMatchedItemId());
+        if (!item.isPresent() || !matched.isPresent() || !itemOwner.isPresent() || !matchedOwner.isPresent()) {
+            return;
+        }
+
+        String itemOwnerEmail = itemOwner.get().getEmail();
+        String matchedOwnerEmail = matchedOwner.get().getEmail();
+        if (itemOwnerEmail != null) {
+            notifyOwner(itemOwnerEmail, item.get(), matched.get());
+        }
+        if (matchedOwnerEmail != null && !matchedOwnerEmail.equals(itemOwnerEmail)) {
+            notifyOwner(matchedOwnerEmail, matched.get(), item.get());
+        }
+    }
+
+    private void notifyOwner(String recipient, Item own, Item other) {
+        String subject = "Possible match for \"" + own.getTitle() + "\"";
+        String body = "A " + other.getType() + " report may be related to your item \"" + own.getTitle() + "\":\n\n"
+                + other.getTitle() + "\n"
+                + (other.getLocation() != null ? "Location: " + other.getLocation() + "\n" : "")
+                + (other.getDate() != null ? "Date: " + other.getDate() + "\n" : "")
+                + "\nSee /api/items/" + other.getId() + " and /api/items/" + own.getId() + "/matches.";
+        notificationOutbox.enqueue(recipient, subject, body);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.lostandfound.notification;
+
+import java.time.Instant;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.lostandfound.model.OutboxMessage;
+import com.example.lostandfound.repository.OutboxMessageRepository;
+
+// Queues e-mails in the notification_outbox table. Must run inside the transaction of the write
+// that triggers the notification, so the message is stored if and only if that write commits.
+// Nothing here talks to the mail server; OutboxDispatcher delivers the rows later.
+@Service
+public class NotificationOutbox {
+
+    private static final int MAX_BODY_LENGTH = 4000;
+    private static final int MAX_SUBJECT_LENGTH = 255;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String recipient, String subject, String body) {
+        outboxMessageRepository.save(new OutboxMessage(recipient, truncate(subject, MAX_SUBJECT_LENGTH),
+                truncate(body, MAX_BODY_LENGTH), Instant.now()));
+    }
+
+    private static String truncate(String text, int maxLength) {
+        return text.length() <= maxLength ? text : text.substring(0, maxLength);
+    }
+}
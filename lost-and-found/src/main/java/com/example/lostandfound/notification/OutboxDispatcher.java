@@ -0,0 +1,207 @@
+package com.example.lostandfound.notification;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.lostandfound.model.OutboxMessage;
+import com.example.lostandfound.repository.OutboxMessageRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+// Drains the notification outbox in batches on the scheduler thread.
+// A batch is claimed by pushing its next attempt past a lease, sent over one SMTP connection,
+// and each row is then marked sent or rescheduled with exponential backoff. Rows that keep
+// failing end up FAILED after max-attempts. If the process dies mid-batch the lease simply
+// runs out and the rows are picked up again, so delivery is at-least-once.
+@Component
+public class OutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${lostandfound.notifications.dispatch.enabled:true}")
+    private boolean enabled;
+
+    @Value("${lostandfound.notifications.dispatch.batch-size:50}")
+    private int batchSize;
+
+    @Value("${lostandfound.notifications.dispatch.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${lostandfound.notifications.dispatch.initial-backoff:PT30S}")
+    private Duration initialBackoff;
+
+    @Value("${lostandfound.notifications.dispatch.max-backoff:PT1H}")
+    private Duration maxBackoff;
+
+    @Value("${lostandfound.notifications.dispatch.lease:PT2M}")
+    private Duration lease;
+
+    @Value("${lostandfound.notifications.from:no-reply@lostandfound.local}")
+    private String from;
+
+    private TransactionTemplate transactionTemplate;
+    private Counter sentCounter;
+    private Counter retriedCounter;
+    private Counter failedCounter;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        sentCounter = deliveries("sent");
+        retriedCounter = deliveries("retried");
+        failedCounter = deliveries("failed");
+    }
+
+    private Counter deliveries(String outcome) {
+        return Counter.builder("lostandfound.notifications.deliveries")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${lostandfound.notifications.dispatch.interval:PT5S}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        // Keep going while batches come back full, a backlog shouldn't wait for the next tick
+        int attempted;
+        do {
+            attempted = dispatch();
+        } while (attempted == batchSize);
+    }
+
+    // Sends one batch of due messages and returns how many were attempted. Other nodes, or an
+    // overlapping run, may read the same due rows; each row is claimed with a conditional UPDATE and
+    // only the rows this call won are sent.
+    public int dispatch() {
+        Instant now = Instant.now();
+        Instant leasedUntil = now.plus(lease);
+        List<OutboxMessage> batch = transactionTemplate.execute(status -> {
+            List<OutboxMessage> due = outboxMessageRepository.findDue(now, PageRequest.of(0, batchSize));
+            List<OutboxMessage> claimed = new ArrayList<>(due.size());
+            for (OutboxMessage message : due) {
+                if (outboxMessageRepository.claim(message.getId(), message.getNextAttemptAt(), leasedUntil) == 1) {
+                    claimed.add(message);
+                }
+            }
+            return claimed;
+        });
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        List<SimpleMailMessage> mails = new ArrayList<>(batch.size());
+        for (OutboxMessage message : batch) {
+            SimpleMailMessage mail = new SimpleMailMessage();
+            mail.setFrom(from);
+            mail.setTo(message.getRecipient());
+            mail.setSubject(message.getSubject());
+            mail.setText(message.getBody());
+            mails.add(mail);
+        }
+
+        Map<Long, String> errors = send(batch, mails);
+        record(batch, errors, Instant.now());
+        return batch.size();
+    }
+
+    // Returns the error per message id for the messages that could not be sent
+    private Map<Long, String> send(List<OutboxMessage> batch, List<SimpleMailMessage> mails) {
+        Map<Long, String> errors = new HashMap<>();
+        try {
+            mailSender.send(mails.toArray(new SimpleMailMessage[0]));
+        } catch (MailSendException e) {
+            // Lists the individual failures when it got as far as sending; otherwise the whole batch failed
+            Set<Object> failed = Collections.newSetFromMap(new IdentityHashMap<>());
+            failed.addAll(e.getFailedMessages().keySet());
+            for (int i = 0; i < batch.size(); i++) {
+                if (failed.isEmpty() || failed.contains(mails.get(i))) {
+                    Exception cause = e.getFailedMessages().get(mails.get(i));
+                    errors.put(batch.get(i).getId(), String.valueOf(cause != null ? cause.getMessage() : e.getMessage()));
+                }
+            }
+        } catch (MailException e) {
+            for (OutboxMessage message : batch) {
+                errors.put(message.getId(), String.valueOf(e.getMessage()));
+            }
+        }
+        if (!errors.isEmpty()) {
+            log.warn("{} of {} notification e-mails could not be sent", errors.size(), batch.size());
+        }
+        return errors;
+    }
+
+    private void record(List<OutboxMessage> batch, Map<Long, String> errors, Instant now) {
+        List<Long> ids = new ArrayList<>(batch.size());
+        for (OutboxMessage message : batch) {
+            ids.add(message.getId());
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            for (OutboxMessage message : outboxMessageRepository.findAllById(ids)) {
+                String error = errors.get(message.getId());
+                if (error == null) {
+                    message.setStatus(OutboxMessage.SENT);
+                    message.setSentAt(now);
+                    message.setLastError(null);
+                    sentCounter.increment();
+                    continue;
+                }
+
+                int attempts = message.getAttempts() + 1;
+                message.setAttempts(attempts);
+                message.setLastError(error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH));
+                if (attempts >= maxAttempts) {
+                    message.setStatus(OutboxMessage.FAILED);
+                    failedCounter.increment();
+                } else {
+                    message.setNextAttemptAt(now.plus(backoff(attempts)));
+                    retriedCounter.increment();
+                }
+            }
+        });
+    }
+
+    // initial-backoff doubled per failed attempt, capped at max-backoff
+    private Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 30));
+        return delay.compareTo(maxBackoff) > 0 || delay.isNegative() ? maxBackoff : delay;
+    }
+}
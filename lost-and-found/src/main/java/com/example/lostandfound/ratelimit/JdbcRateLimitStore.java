@@ -0,0 +1,57 @@
+package com.example.lostandfound.ratelimit;
+
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.lostandfound.repository.RateLimitBucketRepository;
+
+// Buckets shared by every node through the rate_limit_bucket table. A granted request costs one
+// UPDATE; a refused one or a new key costs one more statement. Node clocks are assumed to be in
+// sync to well under the shortest interval.
+@Component
+@ConditionalOnProperty(name = "lostandfound.rate-limit.store", havingValue = "jdbc")
+public class JdbcRateLimitStore implements RateLimitStore {
+
+    private static final Logger log = LoggerFactory.getLogger(JdbcRateLimitStore.class);
+
+    @Autowired
+    private RateLimitBucketRepository rateLimitBucketRepository;
+
+    @Override
+    public long acquire(String key, RateLimit limit, long nowMillis) {
+        long interval = limit.getIntervalMillis();
+        long burst = limit.getBurstMillis();
+        if (rateLimitBucketRepository.take(key, nowMillis, interval, burst) == 1) {
+            return 0;
+        }
+
+        Optional<Long> tat = rateLimitBucketRepository.findTat(key);
+        if (tat.isPresent()) {
+            long allowedAt = Math.max(tat.get(), nowMillis) + interval - burst;
+            return Math.max(1, allowedAt - nowMillis);
+        }
+
+        try {
+            rateLimitBucketRepository.create(key, nowMillis + interval);
+            return 0;
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the bucket first; take from that one
+            return rateLimitBucketRepository.take(key, nowMillis, interval, burst) == 1 ? 0 : interval;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${lostandfound.rate-limit.jdbc.cleanup-interval:PT5M}")
+    public void deleteFullBuckets() {
+        int deleted = rateLimitBucketRepository.deleteFull(System.currentTimeMillis());
+        if (deleted > 0) {
+            log.debug("Dropped {} full rate limit buckets", deleted);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.lostandfound.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+
+// Buckets in process memory: a single AtomicLong per key updated with compare-and-set, so requests
+// never wait on each other. The map is bounded; a key evicted under pressure, or idle longer than any
+// period, simply starts again with a full bucket. Limits apply per node.
+@Component
+@ConditionalOnProperty(name = "lostandfound.rate-limit.store", havingValue = "local", matchIfMissing = true)
+public class LocalRateLimitStore implements RateLimitStore {
+
+    @Value("${lostandfound.rate-limit.local.max-keys:100000}")
+    private long maxKeys;
+
+    // Should be at least the longest configured period, or idle keys come back with full buckets early
+    @Value("${lostandfound.rate-limit.local.idle-timeout:PT10M}")
+    private Duration idleTimeout;
+
+    // Theoretical arrival time per key, in epoch milliseconds
+    private Cache<String, AtomicLong> buckets;
+
+    @PostConstruct
+    void init() {
+        buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleTimeout)
+                .build();
+    }
+
+    @Override
+    public long acquire(String key, RateLimit limit, long nowMillis) {
+        AtomicLong tat = buckets.get(key, k -> new AtomicLong(nowMillis));
+        while (true) {
+            long current = tat.get();
+            long next = Math.max(current, nowMillis) + limit.getIntervalMillis();
+            long allowedAt = next - limit.getBurstMillis();
+            if (allowedAt > nowMillis) {
+                return allowedAt - nowMillis;
+            }
+            if (tat.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
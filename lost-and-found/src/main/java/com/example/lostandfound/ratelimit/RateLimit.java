@@ -0,0 +1,39 @@
+package com.example.lostandfound.ratelimit;
+
+import java.time.Duration;
+
+// A token bucket of capacity tokens refilled evenly over period, in the GCRA form the stores use:
+// one request costs interval, and the bucket may run at most burst ahead of the clock
+public class RateLimit {
+
+    private final String name;
+    private final int capacity;
+    private final long intervalMillis;
+    private final long burstMillis;
+
+    public RateLimit(String name, int capacity, Duration period) {
+        if (capacity < 1 || period.isNegative() || period.isZero()) {
+            throw new IllegalArgumentException("Rate limit " + name + " needs a positive capacity and period");
+        }
+        this.name = name;
+        this.capacity = capacity;
+        this.intervalMillis = Math.max(1, period.toMillis() / capacity);
+        this.burstMillis = intervalMillis * capacity;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    public long getBurstMillis() {
+        return burstMillis;
+    }
+}
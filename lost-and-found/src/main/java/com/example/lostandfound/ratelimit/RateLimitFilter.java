@@ -0,0 +1,45 @@
+package com.example.lostandfound.ratelimit;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Turns away clients over their limit before any BCrypt work or search query is done. Keyed by the
+// remote address; behind a proxy set server.forward-headers-strategy so that is the client's.
+// The per-username login limit needs the request body and is checked in AuthController.
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String uri = request.getRequestURI();
+        long wait = 0;
+        if (uri.startsWith("/api/auth/")) {
+            wait = rateLimiter.acquireAuth(request.getRemoteAddr());
+        } else if (uri.startsWith("/api/items/search")) {
+            wait = rateLimiter.acquireSearch(request.getRemoteAddr());
+        }
+
+        if (wait > 0) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, RateLimiter.retryAfterSeconds(wait));
+            response.setContentType("text/plain");
+            response.getWriter().write("Too many requests, please retry later");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.lostandfound.ratelimit;
+
+// Where the buckets live. LocalRateLimitStore keeps them in this JVM; JdbcRateLimitStore shares them
+// between nodes through the database. Another backend only has to implement acquire atomically per key.
+public interface RateLimitStore {
+
+    // Takes one token from key's bucket. Returns 0 when granted, otherwise the milliseconds until
+    // a token will be available.
+    long acquire(String key, RateLimit limit, long nowMillis);
+}
@@ -0,0 +1,100 @@
+package com.example.lostandfound.ratelimit;
+
+import java.time.Duration;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+// The limits in front of the anonymous endpoints: all of /api/auth per client IP, logins per
+// username on top of that (so spreading a credential-stuffing run over many IPs doesn't help),
+// and /api/items/search per client IP
+@Component
+public class RateLimiter {
+
+    @Autowired
+    private RateLimitStore rateLimitStore;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${lostandfound.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${lostandfound.rate-limit.auth.capacity:30}")
+    private int authCapacity;
+
+    @Value("${lostandfound.rate-limit.auth.period:PT1M}")
+    private Duration authPeriod;
+
+    @Value("${lostandfound.rate-limit.login.capacity:10}")
+    private int loginCapacity;
+
+    @Value("${lostandfound.rate-limit.login.period:PT5M}")
+    private Duration loginPeriod;
+
+    @Value("${lostandfound.rate-limit.search.capacity:300}")
+    private int searchCapacity;
+
+    @Value("${lostandfound.rate-limit.search.period:PT1M}")
+    private Duration searchPeriod;
+
+    private RateLimit auth;
+    private RateLimit login;
+    private RateLimit search;
+    private Counter authRejected;
+    private Counter loginRejected;
+    private Counter searchRejected;
+
+    @PostConstruct
+    void init() {
+        auth = new RateLimit("auth", authCapacity, authPeriod);
+        login = new RateLimit("login", loginCapacity, loginPeriod);
+        search = new RateLimit("search", searchCapacity, searchPeriod);
+        authRejected = rejected(auth);
+        loginRejected = rejected(login);
+        searchRejected = rejected(search);
+    }
+
+    private Counter rejected(RateLimit limit) {
+        return Counter.builder("lostandfound.rate-limit.rejected")
+                .description("Requests refused with 429")
+                .tag("limit", limit.getName())
+                .register(meterRegistry);
+    }
+
+    // Each returns 0 when the request may go ahead, otherwise the milliseconds to wait
+
+    public long acquireAuth(String clientAddress) {
+        return acquire(auth, clientAddress, authRejected);
+    }
+
+    public long acquireLogin(String username) {
+        return acquire(login, username != null ? username.toLowerCase(Locale.ROOT) : "", loginRejected);
+    }
+
+    public long acquireSearch(String clientAddress) {
+        return acquire(search, clientAddress, searchRejected);
+    }
+
+    private long acquire(RateLimit limit, String key, Counter rejected) {
+        if (!enabled) {
+            return 0;
+        }
+        long wait = rateLimitStore.acquire(limit.getName() + ":" + key, limit, System.currentTimeMillis());
+        if (wait > 0) {
+            rejected.increment();
+        }
+        return wait;
+    }
+
+    // Retry-After is in whole seconds; round up so a client that honours it is let through
+    public static String retryAfterSeconds(long waitMillis) {
+        return String.valueOf(Math.max(1, (waitMillis + 999) / 1000));
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.lostandfound.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.lostandfound.dto.PublicItemDTO;
+import com.example.lostandfound.model.ArchivedItem;
+
+public interface ArchivedItemRepository extends JpaRepository<ArchivedItem, Long> {
+
+    // The opt-in archive search: plain SQL over the archive table, with the same filters as the live fallback
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.example.lostandfound.dto.PublicItemDTO(a.id, a.title, a.description, a.location, " +
+       "a.date, a.type, a.imageUrl, a.thumbnailUrl, a.latitude, a.longitude, a.status) FROM ArchivedItem a " +
+       "WHERE (:title IS NULL OR a.titleLower LIKE LOWER(CONCAT('%', :title, '%'))) " +
+       "AND (:location IS NULL OR a.locationLower LIKE LOWER(CONCAT('%', :location, '%'))) " +
+       "AND (:query IS NULL OR a.titleLower LIKE LOWER(CONCAT('%', :query, '%')) " +
+       "OR LOWER(a.description) LIKE LOWER(CONCAT('%', :query, '%')) " +
+       "OR a.locationLower LIKE LOWER(CONCAT('%', :query, '%'))) " +
+       "AND (:type IS NULL OR a.type = :type) " +
+       "AND (:dateFrom IS NULL OR a.date >= :dateFrom) " +
+       "AND (:dateTo IS NULL OR a.date <= :dateTo) " +
+       "AND (:afterId IS NULL OR a.id > :afterId) " +
+       "ORDER BY a.id")
+    List<PublicItemDTO> search(@Param("title") String title,
+                       @Param("location") String location,
+                       @Param("query") String query,
+                       @Param("type") String type,
+                       @Param("dateFrom") LocalDate dateFrom,
+                       @Param("dateTo") LocalDate dateTo,
+                       @Param("afterId") Long afterId,
+                       Pageable pageable);
+}
@@ -1,23 +1,153 @@
 package com.example.lostandfound.repository;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.lostandfound.dto.ContactInfoDTO;
+import com.example.lostandfound.dto.PublicItemDTO;
+import com.example.lostandfound.event.ItemSnapshot;
 import com.example.lostandfound.model.Item;
+import com.example.lostandfound.search.GeoArea;
+import com.example.lostandfound.search.ItemSearchCriteria;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
-    @Query("SELECT i FROM Item i " +
-       "WHERE (:title IS NULL OR LOWER(i.title) LIKE LOWER(CONCAT('%', :title, '%'))) " +
-       "AND (:location IS NULL OR LOWER(i.location) LIKE LOWER(CONCAT('%', :location, '%'))) " +
+import jakarta.persistence.QueryHint;
+
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemRepositoryCustom {
+
+    // Constructor expression selecting only the columns of the public search response
+    String PUBLIC_ITEM = "new com.example.lostandfound.dto.PublicItemDTO(i.id, i.title, i.description, " +
+       "i.location, i.date, i.type, i.imageUrl, i.thumbnailUrl, i.latitude, i.longitude, i.status)";
+
+    // Snapshot of every column the in-memory indexes and event listeners need
+    String SNAPSHOT = "new com.example.lostandfound.event.ItemSnapshot(i.id, i.user.id, i.title, i.description, " +
+       "i.location, i.date, i.type, i.imageUrl, i.thumbnailUrl, i.latitude, i.longitude, i.status)";
+
+    // Resolved and deleted items stay in the table until archived but are left out of listings and searches
+    String LIVE = "i.status IN ('" + Item.OPEN + "', '" + Item.CLAIMED + "')";
+
+    // Fallback for ItemSearchIndex; the free-text query is matched as a single phrase here.
+    // The read-only methods serving public reads go to the replica when one is configured; searches
+    // whose page goes into SearchResultCache are pinned to the primary.
+    @Transactional(readOnly = true)
+    @Query("SELECT " + PUBLIC_ITEM + " FROM Item i " +
+       "WHERE " + LIVE + " " +
+       "AND (:title IS NULL OR i.titleLower LIKE LOWER(CONCAT('%', :title, '%'))) " +
+       "AND (:location IS NULL OR i.locationLower LIKE LOWER(CONCAT('%', :location, '%'))) " +
+       "AND (:query IS NULL OR i.titleLower LIKE LOWER(CONCAT('%', :query, '%')) " +
+       "OR LOWER(i.description) LIKE LOWER(CONCAT('%', :query, '%')) " +
+       "OR i.locationLower LIKE LOWER(CONCAT('%', :query, '%'))) " +
        "AND (:type IS NULL OR i.type = :type) " +
-       "AND (:date IS NULL OR i.date = :date)")
-    List<Item> searchItems(@Param("title") String title, 
+       "AND (:date IS NULL OR i.date = :date) " +
+       "AND (:dateFrom IS NULL OR i.date >= :dateFrom) " +
+       "AND (:dateTo IS NULL OR i.date <= :dateTo) " +
+       "AND (:south IS NULL OR (i.latitude BETWEEN :south AND :north AND i.longitude BETWEEN :west AND :east)) " +
+       "AND (:radiusSquared IS NULL OR (i.latitude - :centreLat) * (i.latitude - :centreLat) " +
+       "+ (i.longitude - :centreLng) * (i.longitude - :centreLng) * :lngScaleSquared <= :radiusSquared) " +
+       "AND (:afterId IS NULL OR i.id > :afterId) " +
+       "ORDER BY i.id")
+    List<PublicItemDTO> searchItems(@Param("title") String title, 
                        @Param("location") String location, 
+                       @Param("query") String query, 
                        @Param("type") String type, 
-                       @Param("date") LocalDate date);
+                       @Param("date") LocalDate date,
+                       @Param("dateFrom") LocalDate dateFrom,
+                       @Param("dateTo") LocalDate dateTo,
+                       @Param("south") Double south,
+                       @Param("west") Double west,
+                       @Param("north") Double north,
+                       @Param("east") Double east,
+                       @Param("centreLat") Double centreLatitude,
+                       @Param("centreLng") Double centreLongitude,
+                       @Param("lngScaleSquared") Double longitudeScaleSquared,
+                       @Param("radiusSquared") Double radiusDegreesSquared,
+                       @Param("afterId") Long afterId,
+                       Pageable pageable);
+
+    default List<PublicItemDTO> searchItems(ItemSearchCriteria criteria, Long afterId, Pageable pageable) {
+        GeoArea area = criteria.getArea();
+        return searchItems(criteria.getTitle(), criteria.getLocation(), criteria.getQuery(), criteria.getType(),
+                criteria.getDate(), criteria.getDateFrom(), criteria.getDateTo(),
+                area != null ? area.getSouth() : null,
+                area != null ? area.getWest() : null,
+                area != null ? area.getNorth() : null,
+                area != null ? area.getEast() : null,
+                area != null ? area.getCentreLatitude() : null,
+                area != null ? area.getCentreLongitude() : null,
+                area != null ? area.getLongitudeScaleSquared() : null,
+                area != null ? area.getRadiusDegreesSquared() : null,
+                afterId, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    @Query("SELECT " + PUBLIC_ITEM + " FROM Item i WHERE " + LIVE + " AND i.id > :afterId ORDER BY i.id")
+    List<PublicItemDTO> findPublicItemsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Keyset scan used to (re)build in-memory indexes; i.user.id reads the foreign key without a join
+    @Query("SELECT " + SNAPSHOT + " FROM Item i WHERE i.id > :afterId ORDER BY i.id")
+    List<ItemSnapshot> findSnapshotsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.example.lostandfound.dto.ContactInfoDTO(u.email) FROM Item i JOIN i.user u " +
+       "WHERE i.id = :id AND i.status <> '" + Item.DELETED + "'")
+    Optional<ContactInfoDTO> findOwnerContactByItemId(@Param("id") Long id);
+
+    // Forward-only cursor over every item not deleted, for exports; must be consumed inside a transaction and closed
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT i FROM Item i WHERE i.status <> '" + Item.DELETED + "' ORDER BY i.id")
+    Stream<Item> streamAllOrderedById();
+
+    // Items due for ItemArchiver: closed before the retention cutoff, or dated before the age cutoff.
+    // Every statement of an archive batch repeats it, in JPQL and in SQL.
+    String ARCHIVABLE = "((i.status IN ('" + Item.RESOLVED + "', '" + Item.DELETED + "') " +
+       "AND i.closedAt < :closedBefore) OR i.date < :datedBefore)";
+    String ARCHIVABLE_ROW = "((status IN ('" + Item.RESOLVED + "', '" + Item.DELETED + "') " +
+       "AND closed_at < :closedBefore) OR date < :datedBefore)";
+
+    // Locks the next batch of due items, so they cannot be reopened or edited until the batch commits
+    @Query(value = "SELECT id FROM item WHERE " + ARCHIVABLE_ROW + " ORDER BY id " +
+       "FETCH FIRST :limit ROWS ONLY FOR UPDATE", nativeQuery = true)
+    List<Long> lockArchivable(@Param("closedBefore") Instant closedBefore,
+                       @Param("datedBefore") LocalDate datedBefore,
+                       @Param("limit") int limit);
+
+    @Query("SELECT " + SNAPSHOT + " FROM Item i WHERE i.id IN :ids AND " + ARCHIVABLE + " ORDER BY i.id")
+    List<ItemSnapshot> findArchivable(@Param("ids") List<Long> ids,
+                       @Param("closedBefore") Instant closedBefore,
+                       @Param("datedBefore") LocalDate datedBefore);
+
+    @Modifying
+    @Query(value = "INSERT INTO item_archive (id, user_id, title, description, location, date, type, image_url, " +
+       "thumbnail_url, latitude, longitude, status, closed_at, title_lower, location_lower, archived_at) " +
+       "SELECT id, user_id, title, description, location, date, type, image_url, thumbnail_url, latitude, " +
+       "longitude, status, closed_at, title_lower, location_lower, :archivedAt FROM item " +
+       "WHERE id IN (:ids) AND " + ARCHIVABLE_ROW,
+       nativeQuery = true)
+    int copyToArchive(@Param("ids") List<Long> ids,
+                       @Param("closedBefore") Instant closedBefore,
+                       @Param("datedBefore") LocalDate datedBefore,
+                       @Param("archivedAt") Instant archivedAt);
+
+    // Bulk delete without loading the entities; callers publish the ItemChangedEvents themselves
+    @Modifying
+    @Query("DELETE FROM Item i WHERE i.id IN :ids AND " + ARCHIVABLE)
+    int deleteArchivable(@Param("ids") List<Long> ids,
+                       @Param("closedBefore") Instant closedBefore,
+                       @Param("datedBefore") LocalDate datedBefore);
 
 }
@@ -0,0 +1,20 @@
+package com.example.lostandfound.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import com.example.lostandfound.model.Item;
+
+// Writes that check ownership in the UPDATE itself instead of loading the item first.
+// Each applies only to a non-deleted item of ownerId, and when versions is not null only if the item
+// is still at one of them. Empty means no row qualified; the caller works out why only in that case.
+public interface ItemRepositoryCustom {
+
+    // Copies the editable fields of changes, like Item.updateItem. With imageLocked the item must
+    // already have the imageUrl of changes, so the write can keep its image but not swap it.
+    Optional<ItemWrite> updateOwned(Long id, Long ownerId, List<Long> versions, Item changes, boolean imageLocked);
+
+    // Same rules for closedAt as Item.changeStatus
+    Optional<ItemWrite> changeStatusOwned(Long id, Long ownerId, List<Long> versions, String status, Instant now);
+}
@@ -0,0 +1,195 @@
+package com.example.lostandfound.repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.example.lostandfound.event.ItemChangedEvent;
+import com.example.lostandfound.event.ItemSnapshot;
+import com.example.lostandfound.model.Item;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceUnit;
+
+// Owned writes carry the ownership, status and version checks in their WHERE clause; no row back
+// is how a failed check shows. The change events also need the row as it was before:
+// - on H2 the UPDATE is wrapped in an OLD TABLE delta, so the whole write is one statement
+// - elsewhere the row is read and locked with the same checks (SELECT ... FOR UPDATE), then
+//   updated by primary key in the same transaction
+// lostandfound.items.old-table-writes overrides the choice made from the configured dialect.
+// The entity listener never sees these writes, so the events are published here.
+class ItemRepositoryImpl implements ItemRepositoryCustom {
+
+    private static final String COLUMNS = "SELECT id, user_id, title, description, location, date, type, " +
+       "image_url, thumbnail_url, latitude, longitude, status, version";
+
+    private static final String OWNED = " WHERE id = :id AND user_id = :ownerId AND status <> '" + Item.DELETED + "'";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${lostandfound.items.old-table-writes:#{null}}")
+    private Boolean oldTableWrites;
+
+    private boolean oldTable;
+
+    @PostConstruct
+    void init() {
+        oldTable = oldTableWrites != null ? oldTableWrites
+                : entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect()
+                        instanceof H2Dialect;
+    }
+
+    @Override
+    public Optional<ItemWrite> updateOwned(Long id, Long ownerId, List<Long> versions, Item changes,
+            boolean imageLocked) {
+        // A thumbnail only ever belongs to the image it was made from
+        Optional<Object[]> row = write("title = :title, title_lower = :titleLower, description = :description, " +
+                "location = :location, location_lower = :locationLower, date = :date, type = :type, " +
+                "latitude = :latitude, longitude = :longitude, " +
+                "thumbnail_url = CASE WHEN image_url = :imageUrl OR (image_url IS NULL AND :imageUrl IS NULL) " +
+                "THEN thumbnail_url END, " +
+                "image_url = :imageUrl, version = version + 1", id, ownerId, versions,
+                imageLocked ? changes.getImageUrl() : null, query -> {
+                    query.setParameter("title", changes.getTitle(), String.class);
+                    query.setParameter("titleLower", lower(changes.getTitle()), String.class);
+                    query.setParameter("description", changes.getDescription(), String.class);
+                    query.setParameter("location", changes.getLocation(), String.class);
+                    query.setParameter("locationLower", lower(changes.getLocation()), String.class);
+                    query.setParameter("date", changes.getDate(), LocalDate.class);
+                    query.setParameter("type", changes.getType(), String.class);
+                    query.setParameter("latitude", changes.getLatitude(), Double.class);
+                    query.setParameter("longitude", changes.getLongitude(), Double.class);
+                    query.setParameter("imageUrl", changes.getImageUrl(), String.class);
+                });
+        if (!row.isPresent()) {
+            return Optional.empty();
+        }
+        ItemSnapshot previous = snapshot(row.get());
+        String thumbnailUrl = Objects.equals(previous.getImageUrl(), changes.getImageUrl())
+                ? previous.getThumbnailUrl() : null;
+        ItemSnapshot current = new ItemSnapshot(previous.getId(), previous.getOwnerId(), changes.getTitle(),
+                changes.getDescription(), changes.getLocation(), changes.getDate(), changes.getType(),
+                changes.getImageUrl(), thumbnailUrl, changes.getLatitude(), changes.getLongitude(),
+                previous.getStatus());
+        return Optional.of(published(previous, current, (Long) row.get()[12] + 1));
+    }
+
+    @Override
+    public Optional<ItemWrite> changeStatusOwned(Long id, Long ownerId, List<Long> versions, String status,
+            Instant now) {
+        Optional<Object[]> row = write("closed_at = CASE WHEN status = :status THEN closed_at ELSE :closedAt END, " +
+                "status = :status, version = version + 1", id, ownerId, versions, null, query -> {
+                    query.setParameter("status", status, String.class);
+                    query.setParameter("closedAt", Item.isLive(status) ? null : now, Instant.class);
+                });
+        if (!row.isPresent()) {
+            return Optional.empty();
+        }
+        ItemSnapshot previous = snapshot(row.get());
+        ItemSnapshot current = new ItemSnapshot(previous.getId(), previous.getOwnerId(), previous.getTitle(),
+                previous.getDescription(), previous.getLocation(), previous.getDate(), previous.getType(),
+                previous.getImageUrl(), previous.getThumbnailUrl(), previous.getLatitude(), previous.getLongitude(),
+                status);
+        return Optional.of(published(previous, current, (Long) row.get()[12] + 1));
+    }
+
+    // The row as it was before the write, or empty when one of the checks failed. A non-null
+    // requiredImageUrl is one more check: the item must currently have that image.
+    private Optional<Object[]> write(String assignments, Long id, Long ownerId, List<Long> versions,
+            String requiredImageUrl, Consumer<NativeQuery<?>> parameters) {
+        if (versions != null && versions.isEmpty()) {
+            return Optional.empty();
+        }
+        String checks = OWNED + versionCheck(versions)
+                + (requiredImageUrl != null ? " AND image_url = :requiredImageUrl" : "");
+        if (oldTable) {
+            NativeQuery<?> query = rowQuery(COLUMNS + " FROM OLD TABLE (UPDATE item SET " + assignments + checks + ")",
+                    id, ownerId, versions, requiredImageUrl);
+            parameters.accept(query);
+            return firstRow(query);
+        }
+
+        Optional<Object[]> row = firstRow(rowQuery(COLUMNS + " FROM item" + checks + " FOR UPDATE",
+                id, ownerId, versions, requiredImageUrl));
+        if (row.isPresent()) {
+            NativeQuery<?> update = entityManager.createNativeQuery("UPDATE item SET " + assignments +
+                    " WHERE id = :id").unwrap(NativeQuery.class);
+            update.setParameter("id", id, Long.class);
+            parameters.accept(update);
+            update.executeUpdate();
+        }
+        return row;
+    }
+
+    private NativeQuery<?> rowQuery(String sql, Long id, Long ownerId, List<Long> versions, String requiredImageUrl) {
+        NativeQuery<?> query = entityManager.createNativeQuery(sql).unwrap(NativeQuery.class);
+        query.setParameter("id", id, Long.class);
+        query.setParameter("ownerId", ownerId, Long.class);
+        if (versions != null) {
+            query.setParameterList("versions", versions, Long.class);
+        }
+        if (requiredImageUrl != null) {
+            query.setParameter("requiredImageUrl", requiredImageUrl, String.class);
+        }
+        query.addScalar("id", Long.class)
+                .addScalar("user_id", Long.class)
+                .addScalar("title", String.class)
+                .addScalar("description", String.class)
+                .addScalar("location", String.class)
+                .addScalar("date", LocalDate.class)
+                .addScalar("type", String.class)
+                .addScalar("image_url", String.class)
+                .addScalar("thumbnail_url", String.class)
+                .addScalar("latitude", Double.class)
+                .addScalar("longitude", Double.class)
+                .addScalar("status", String.class)
+                .addScalar("version", Long.class);
+        return query;
+    }
+
+    private static String versionCheck(List<Long> versions) {
+        return versions != null ? " AND version IN (:versions)" : "";
+    }
+
+    private static Optional<Object[]> firstRow(NativeQuery<?> query) {
+        List<?> rows = query.getResultList();
+        return rows.isEmpty() ? Optional.empty() : Optional.of((Object[]) rows.get(0));
+    }
+
+    private static ItemSnapshot snapshot(Object[] row) {
+        return new ItemSnapshot((Long) row[0], (Long) row[1], (String) row[2], (String) row[3], (String) row[4],
+                (LocalDate) row[5], (String) row[6], (String) row[7], (String) row[8], (Double) row[9],
+                (Double) row[10], (String) row[11]);
+    }
+
+    // Delivered to the transactional listeners after commit, like the entity listener's events
+    private ItemWrite published(ItemSnapshot previous, ItemSnapshot current, long version) {
+        eventPublisher.publishEvent(ItemChangedEvent.updated(previous, current));
+        return new ItemWrite(previous, current, version);
+    }
+
+    private static String lower(String value) {
+        return value != null ? value.toLowerCase(Locale.ROOT) : null;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.lostandfound.repository;
+
+import com.example.lostandfound.event.ItemSnapshot;
+
+// Outcome of an ownership-checked write: the item before and after, and its new version
+public class ItemWrite {
+
+    private final ItemSnapshot previous;
+    private final ItemSnapshot current;
+    private final long version;
+
+    ItemWrite(ItemSnapshot previous, ItemSnapshot current, long version) {
+        this.previous = previous;
+        this.current = current;
+        this.version = version;
+    }
+
+    public ItemSnapshot getPrevious() {
+        return previous;
+    }
+
+    public ItemSnapshot getCurrent() {
+        return current;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
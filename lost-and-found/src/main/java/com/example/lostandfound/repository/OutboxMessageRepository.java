@@ -0,0 +1,28 @@
+package com.example.lostandfound.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.lostandfound.model.OutboxMessage;
+
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+
+    @Query("SELECT m FROM OutboxMessage m WHERE m.status = 'PENDING' AND m.nextAttemptAt <= :now " +
+       "ORDER BY m.nextAttemptAt, m.id")
+    List<OutboxMessage> findDue(@Param("now") Instant now, Pageable pageable);
+
+    // Leases a message to one dispatcher. Only succeeds if nextAttemptAt is still the value the caller
+    // read, so of several dispatchers that saw the same due row exactly one gets 1 back.
+    @Modifying
+    @Query("UPDATE OutboxMessage m SET m.nextAttemptAt = :lease " +
+       "WHERE m.id = :id AND m.status = 'PENDING' AND m.nextAttemptAt = :seen")
+    int claim(@Param("id") Long id, @Param("seen") Instant seen, @Param("lease") Instant lease);
+
+    long countByStatus(String status);
+}
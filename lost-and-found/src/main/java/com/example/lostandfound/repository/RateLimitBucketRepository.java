@@ -0,0 +1,42 @@
+package com.example.lostandfound.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.lostandfound.model.RateLimitBucket;
+
+// Each statement is its own short transaction on the primary; the row lock of the UPDATE is what
+// makes a take atomic across nodes
+public interface RateLimitBucketRepository extends JpaRepository<RateLimitBucket, String> {
+
+    // One GCRA step: pushes the theoretical arrival time on by one interval unless that would put
+    // it more than burst ahead of now. Returns 0 when the bucket is empty or doesn't exist yet.
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE rate_limit_bucket SET tat = GREATEST(tat, :now) + :interval " +
+       "WHERE bucket_key = :key AND GREATEST(tat, :now) + :interval - :burst <= :now", nativeQuery = true)
+    int take(@Param("key") String key,
+             @Param("now") long now,
+             @Param("interval") long interval,
+             @Param("burst") long burst);
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO rate_limit_bucket (bucket_key, tat) VALUES (:key, :tat)", nativeQuery = true)
+    int create(@Param("key") String key, @Param("tat") long tat);
+
+    @Transactional
+    @Query("SELECT b.tat FROM RateLimitBucket b WHERE b.key = :key")
+    Optional<Long> findTat(@Param("key") String key);
+
+    // Buckets whose arrival time has passed are full again, dropping them loses nothing
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RateLimitBucket b WHERE b.tat < :now")
+    int deleteFull(@Param("now") long now);
+}
@@ -0,0 +1,153 @@
+package com.example.lostandfound.search;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import com.example.lostandfound.dto.SearchFacetsDTO;
+import com.example.lostandfound.event.ItemSnapshot;
+
+// Item counts per (date, type, location) cell, adjusted on every indexed add and remove.
+// A facet query sums the cells in its date range, so its cost follows the number of distinct
+// type/location combinations per day rather than the number of items.
+// Not thread-safe; ItemSearchIndex guards access with its own lock.
+final class FacetCounts {
+
+    static final String DAY = "day";
+    static final String MONTH = "month";
+    static final String YEAR = "year";
+
+    private static final String UNDATED = "none";
+
+    private final TreeMap<LocalDate, Map<Cell, long[]>> dated = new TreeMap<>();
+    private final Map<Cell, long[]> undated = new HashMap<>();
+
+    void add(ItemSnapshot item) {
+        adjust(item, 1);
+    }
+
+    void remove(ItemSnapshot item) {
+        adjust(item, -1);
+    }
+
+    void clear() {
+        dated.clear();
+        undated.clear();
+    }
+
+    // Undated items only count when no date range is given. Locations are matched case-insensitively.
+    SearchFacetsDTO count(String type, LocalDate from, LocalDate to, String location, String interval,
+            int maxLocations) {
+        String locationKey = location != null ? location.toLowerCase(Locale.ROOT) : null;
+        Map<String, Long> types = new HashMap<>();
+        Map<String, Long> dates = new TreeMap<>();
+        Map<String, Long> locations = new HashMap<>();
+        long total = 0;
+
+        Map<LocalDate, Map<Cell, long[]>> range = dated;
+        if (from != null && to != null) {
+            range = from.isAfter(to) ? Map.of() : dated.subMap(from, true, to, true);
+        } else if (from != null) {
+            range = dated.tailMap(from, true);
+        } else if (to != null) {
+            range = dated.headMap(to, true);
+        }
+
+        for (Map.Entry<LocalDate, Map<Cell, long[]>> day : range.entrySet()) {
+            total += sum(day.getValue().entrySet(), bucket(day.getKey(), interval), type, locationKey,
+                    types, dates, locations);
+        }
+        if (from == null && to == null) {
+            total += sum(undated.entrySet(), UNDATED, type, locationKey, types, dates, locations);
+        }
+
+        return new SearchFacetsDTO(total, byCount(types, Integer.MAX_VALUE), dates, byCount(locations, maxLocations));
+    }
+
+    private static long sum(Collection<Map.Entry<Cell, long[]>> cells, String bucket, String type, String location,
+            Map<String, Long> types, Map<String, Long> dates, Map<String, Long> locations) {
+        long total = 0;
+        for (Map.Entry<Cell, long[]> entry : cells) {
+            Cell cell = entry.getKey();
+            if ((type != null && !type.equals(cell.type)) || (location != null && !location.equals(cell.location))) {
+                continue;
+            }
+            long count = entry.getValue()[0];
+            total += count;
+            if (cell.type != null) {
+                types.merge(cell.type, count, Long::sum);
+            }
+            if (cell.location != null) {
+                locations.merge(cell.location, count, Long::sum);
+            }
+            dates.merge(bucket, count, Long::sum);
+        }
+        return total;
+    }
+
+    private void adjust(ItemSnapshot item, long delta) {
+        String location = item.getLocation() != null ? item.getLocation().toLowerCase(Locale.ROOT) : null;
+        Cell cell = new Cell(item.getType(), location);
+        Map<Cell, long[]> cells = item.getDate() != null
+                ? dated.computeIfAbsent(item.getDate(), d -> new HashMap<>())
+                : undated;
+        long[] count = cells.computeIfAbsent(cell, c -> new long[1]);
+        count[0] += delta;
+        if (count[0] <= 0) {
+            cells.remove(cell);
+            if (cells.isEmpty() && item.getDate() != null) {
+                dated.remove(item.getDate());
+            }
+        }
+    }
+
+    private static String bucket(LocalDate date, String interval) {
+        switch (interval) {
+            case DAY:
+                return date.toString();
+            case YEAR:
+                return String.valueOf(date.getYear());
+            default:
+                return date.toString().substring(0, 7);
+        }
+    }
+
+    private static Map<String, Long> byCount(Map<String, Long> counts, int limit) {
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+
+    private static final class Cell {
+
+        private final String type;
+        private final String location;
+
+        private Cell(String type, String location) {
+            this.type = type;
+            this.location = location;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Cell)) {
+                return false;
+            }
+            Cell cell = (Cell) other;
+            return Objects.equals(type, cell.type) && Objects.equals(location, cell.location);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, location);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.lostandfound.search;
+
+import java.util.Locale;
+
+// Search area: a bounding box, or a circle given by centre and radius together with the box around it.
+// Distances use an equirectangular approximation, which is well within a percent of the great-circle
+// distance at the radii accepted for search and reduces to plain arithmetic in SQL.
+// Boxes crossing the antimeridian are not supported.
+public final class GeoArea {
+
+    // Mean length of one degree of latitude
+    public static final double KM_PER_DEGREE = 111.195;
+
+    private final double south;
+    private final double west;
+    private final double north;
+    private final double east;
+
+    // Only set for circles
+    private final Double centreLatitude;
+    private final Double centreLongitude;
+    private final Double radiusKm;
+
+    private GeoArea(double south, double west, double north, double east,
+            Double centreLatitude, Double centreLongitude, Double radiusKm) {
+        this.south = south;
+        this.west = west;
+        this.north = north;
+        this.east = east;
+        this.centreLatitude = centreLatitude;
+        this.centreLongitude = centreLongitude;
+        this.radiusKm = radiusKm;
+    }
+
+    public static GeoArea box(double south, double west, double north, double east) {
+        if (!isValid(south, west) || !isValid(north, east) || south > north || west > east) {
+            throw new IllegalArgumentException("Bounding box must be south,west,north,east in degrees");
+        }
+        return new GeoArea(south, west, north, east, null, null, null);
+    }
+
+    public static GeoArea circle(double latitude, double longitude, double radiusKm) {
+        if (!isValid(latitude, longitude) || !(radiusKm > 0)) {
+            throw new IllegalArgumentException("Circle needs a valid centre and a positive radius");
+        }
+        double latitudeDelta = radiusKm / KM_PER_DEGREE;
+        double south = Math.max(-90, latitude - latitudeDelta);
+        double north = Math.min(90, latitude + latitudeDelta);
+        double west = -180;
+        double east = 180;
+        // Near the poles the circle spans every longitude
+        double cos = Math.cos(Math.toRadians(latitude));
+        if (cos * 180 > latitudeDelta) {
+            double longitudeDelta = latitudeDelta / cos;
+            west = Math.max(-180, longitude - longitudeDelta);
+            east = Math.min(180, longitude + longitudeDelta);
+        }
+        return new GeoArea(south, west, north, east, latitude, longitude, radiusKm);
+    }
+
+    // Coordinates are optional on items, but must come as a pair and within range
+    public static boolean isValid(Double latitude, Double longitude) {
+        if (latitude == null || longitude == null) {
+            return latitude == null && longitude == null;
+        }
+        return latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180;
+    }
+
+    public static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double x = (longitude2 - longitude1) * Math.cos(Math.toRadians((latitude1 + latitude2) / 2));
+        double y = latitude2 - latitude1;
+        return Math.sqrt(x * x + y * y) * KM_PER_DEGREE;
+    }
+
+    public boolean contains(Double latitude, Double longitude) {
+        if (latitude == null || longitude == null) {
+            return false;
+        }
+        if (latitude < south || latitude > north || longitude < west || longitude > east) {
+            return false;
+        }
+        if (radiusKm == null) {
+            return true;
+        }
+        // Same formula as the SQL fallback, so both search paths agree on the edge
+        double x = (longitude - centreLongitude) * longitudeScale();
+        double y = latitude - centreLatitude;
+        return x * x + y * y <= radiusDegreesSquared();
+    }
+
+    public double getSouth() {
+        return south;
+    }
+
+    public double getWest() {
+        return west;
+    }
+
+    public double getNorth() {
+        return north;
+    }
+
+    public double getEast() {
+        return east;
+    }
+
+    public Double getCentreLatitude() {
+        return centreLatitude;
+    }
+
+    public Double getCentreLongitude() {
+        return centreLongitude;
+    }
+
+    public Double getRadiusKm() {
+        return radiusKm;
+    }
+
+    // Degrees of longitude to degrees of latitude at the centre; squared for the SQL distance check
+    public Double getLongitudeScaleSquared() {
+        return radiusKm == null ? null : longitudeScale() * longitudeScale();
+    }
+
+    public Double getRadiusDegreesSquared() {
+        return radiusKm == null ? null : radiusDegreesSquared();
+    }
+
+    String key() {
+        if (radiusKm != null) {
+            return String.format(Locale.ROOT, "c%s,%s,%s", centreLatitude, centreLongitude, radiusKm);
+        }
+        return String.format(Locale.ROOT, "b%s,%s,%s,%s", south, west, north, east);
+    }
+
+    private double longitudeScale() {
+        return Math.cos(Math.toRadians(centreLatitude));
+    }
+
+    private double radiusDegreesSquared() {
+        double radiusDegrees = radiusKm / KM_PER_DEGREE;
+        return radiusDegrees * radiusDegrees;
+    }
+}
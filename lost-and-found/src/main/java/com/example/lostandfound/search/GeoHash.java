@@ -0,0 +1,77 @@
+package com.example.lostandfound.search;
+
+import java.util.HashSet;
+import java.util.Set;
+
+// Geohash encoding: each character halves longitude and latitude alternately five times, so items
+// whose hashes share a prefix lie in the same grid cell and a prefix of length n is a cell of that grid.
+final class GeoHash {
+
+    static final int MAX_PRECISION = 7;
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+
+    private GeoHash() {
+    }
+
+    static String encode(double latitude, double longitude, int precision) {
+        double south = -90;
+        double north = 90;
+        double west = -180;
+        double east = 180;
+        char[] hash = new char[precision];
+        boolean longitudeBit = true;
+        for (int i = 0; i < precision; i++) {
+            int value = 0;
+            for (int bit = 0; bit < 5; bit++) {
+                value <<= 1;
+                if (longitudeBit) {
+                    double middle = (west + east) / 2;
+                    if (longitude >= middle) {
+                        value |= 1;
+                        west = middle;
+                    } else {
+                        east = middle;
+                    }
+                } else {
+                    double middle = (south + north) / 2;
+                    if (latitude >= middle) {
+                        value |= 1;
+                        south = middle;
+                    } else {
+                        north = middle;
+                    }
+                }
+                longitudeBit = !longitudeBit;
+            }
+            hash[i] = BASE32[value];
+        }
+        return new String(hash);
+    }
+
+    // Cells of the given precision that together cover the area, or null if that takes more than maxCells
+    static Set<String> covering(GeoArea area, int precision, int maxCells) {
+        int bits = precision * 5;
+        double cellHeight = 180 / Math.pow(2, bits / 2);
+        double cellWidth = 360 / Math.pow(2, bits - bits / 2);
+
+        long firstRow = (long) Math.floor((area.getSouth() + 90) / cellHeight);
+        long lastRow = (long) Math.floor((area.getNorth() + 90) / cellHeight);
+        long firstColumn = (long) Math.floor((area.getWest() + 180) / cellWidth);
+        long lastColumn = (long) Math.floor((area.getEast() + 180) / cellWidth);
+        if ((lastRow - firstRow + 1) * (lastColumn - firstColumn + 1) > maxCells) {
+            return null;
+        }
+
+        // Encoding the centre of each cell; the edge rows at 90 and 180 collapse into the last cell
+        Set<String> cells = new HashSet<>();
+        for (long row = firstRow; row <= lastRow; row++) {
+            for (long column = firstColumn; column <= lastColumn; column++) {
+                double latitude = Math.min(90, (row + 0.5) * cellHeight - 90);
+                double longitude = Math.min(180, (column + 0.5) * cellWidth - 180);
+                cells.add(encode(latitude, longitude, precision));
+            }
+        }
+        return cells;
+    }
+}
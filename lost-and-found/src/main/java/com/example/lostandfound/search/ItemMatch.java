@@ -0,0 +1,23 @@
+package com.example.lostandfound.search;
+
+import com.example.lostandfound.event.ItemSnapshot;
+
+public class ItemMatch {
+
+    private final ItemSnapshot item;
+    private final double score;
+
+    public ItemMatch(ItemSnapshot item, double score) {
+        this.item = item;
+        this.score = score;
+    }
+
+    public ItemSnapshot getItem() {
+        return item;
+    }
+
+    // Between 0 and 1, higher is a more likely pair
+    public double getScore() {
+        return score;
+    }
+}
@@ -0,0 +1,441 @@
+package com.example.lostandfound.search;
+
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.lostandfound.event.ItemChangedEvent;
+import com.example.lostandfound.event.ItemMatchedEvent;
+import com.example.lostandfound.event.ItemSnapshot;
+import com.example.lostandfound.repository.ItemRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// Pairs lost reports with found reports (and the other way round).
+// Keeps its own in-memory candidate index: word postings per type over title and description.
+// Candidates of the opposite type that share a word are scored on text overlap, location (distance
+// when both have coordinates, otherwise word overlap) and how close the dates are. Matches are
+// computed on request from the index, so they always reflect the current items; new high-scoring
+// pairs are additionally announced with ItemMatchedEvent from a background worker after each
+// committed write.
+@Component
+public class ItemMatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(ItemMatcher.class);
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    // Shorter words ("a", "at", "of") carry no signal and have huge postings
+    private static final int MIN_TERM_LENGTH = 3;
+
+    private static final double TEXT_WEIGHT = 0.6;
+    private static final double LOCATION_WEIGHT = 0.25;
+    private static final double DATE_WEIGHT = 0.15;
+
+    // Distance at which two positions stop counting as the same place
+    private static final double NEARBY_KM = 2.0;
+
+    // Used when either side has no date, so undated reports are neither favoured nor dropped
+    private static final double UNKNOWN_DATE_SCORE = 0.5;
+
+    private static final String LOST = "lost";
+    private static final String FOUND = "found";
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${lostandfound.matching.enabled:true}")
+    private boolean enabled;
+
+    @Value("${lostandfound.matching.window-days:30}")
+    private int windowDays;
+
+    @Value("${lostandfound.matching.min-score:0.2}")
+    private double minScore;
+
+    @Value("${lostandfound.matching.notify-score:0.5}")
+    private double notifyScore;
+
+    // Words in more candidates than this are treated like stop words while gathering candidates
+    @Value("${lostandfound.matching.max-postings:20000}")
+    private int maxPostings;
+
+    @Value("${lostandfound.matching.queue-capacity:10000}")
+    private int queueCapacity;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Candidate> candidates = new HashMap<>();
+    private final Map<String, PostingList> postings = new HashMap<>();
+
+    private final Set<Long> touchedDuringRebuild = new HashSet<>();
+    private boolean rebuilding;
+    private volatile boolean ready;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        // One thread keeps announcements in commit order and off the request path
+        executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "item-matcher");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, "itemMatcher", Tags.empty()).bindTo(meterRegistry);
+        Gauge.builder("lostandfound.matching.candidates", this, ItemMatcher::size)
+                .description("Items held in the matching index")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+
+        long started = System.currentTimeMillis();
+        ready = false;
+        lock.writeLock().lock();
+        try {
+            candidates.clear();
+            postings.clear();
+            touchedDuringRebuild.clear();
+            rebuilding = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long lastId = 0;
+        int count = 0;
+        List<ItemSnapshot> batch;
+        do {
+            batch = itemRepository.findSnapshotsAfter(lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            lock.writeLock().lock();
+            try {
+                for (ItemSnapshot item : batch) {
+                    if (!touchedDuringRebuild.contains(item.getId())) {
+                        add(item);
+                        count++;
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+
+        lock.writeLock().lock();
+        try {
+            rebuilding = false;
+            touchedDuringRebuild.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+        log.info("Indexed {} items for matching in {} ms", count, System.currentTimeMillis() - started);
+    }
+
+    @Order(5)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (rebuilding) {
+                touchedDuringRebuild.add(event.getItemId());
+            }
+            remove(event.getItemId());
+            if (event.getCurrent() != null) {
+                add(event.getCurrent());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // A reopened item is announced as if it were new
+        ItemSnapshot previous = event.getPrevious() != null && event.getPrevious().isLive() ? event.getPrevious() : null;
+        ItemSnapshot current = event.getCurrent();
+        if (current != null && current.isLive() && affectsMatching(previous, current)) {
+            try {
+                executor.execute(() -> announceNewMatches(previous, current));
+            } catch (RejectedExecutionException e) {
+                // Matches are still served on request; only the announcement is lost
+                log.warn("Matcher queue full, no match notifications for item {}", current.getId());
+            }
+        }
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return candidates.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Best matches for an indexed item, highest score first; empty when the item is unknown
+    public Optional<List<ItemMatch>> findMatches(Long itemId, int limit) {
+        lock.readLock().lock();
+        try {
+            Candidate item = candidates.get(itemId);
+            if (item == null) {
+                return Optional.empty();
+            }
+            return Optional.of(match(item, limit, minScore));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void announceNewMatches(ItemSnapshot previous, ItemSnapshot current) {
+        Set<Long> known = new HashSet<>();
+        List<ItemMatch> matches;
+        lock.readLock().lock();
+        try {
+            if (previous != null) {
+                for (ItemMatch match : match(new Candidate(previous), Integer.MAX_VALUE, notifyScore)) {
+                    known.add(match.getItem().getId());
+                }
+            }
+            matches = match(new Candidate(current), Integer.MAX_VALUE, notifyScore);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        for (ItemMatch match : matches) {
+            if (!known.contains(match.getItem().getId())) {
+                eventPublisher.publishEvent(
+                        new ItemMatchedEvent(current.getId(), match.getItem().getId(), match.getScore()));
+            }
+        }
+    }
+
+    private List<ItemMatch> match(Candidate item, int limit, double threshold) {
+        String opposite = opposite(item.type);
+        if (opposite == null || item.terms.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // Count shared words per candidate, skipping words so common they would pull in most of the table
+        Map<Long, Integer> shared = new HashMap<>();
+        PostingList smallestCommon = null;
+        for (String term : item.terms) {
+            PostingList list = postings.get(key(opposite, term));
+            if (list == null) {
+                continue;
+            }
+            if (list.size() > maxPostings) {
+                if (smallestCommon == null || list.size() < smallestCommon.size()) {
+                    smallestCommon = list;
+                }
+                continue;
+            }
+            for (int i = 0; i < list.size(); i++) {
+                shared.merge(list.get(i), 1, Integer::sum);
+            }
+        }
+        // Only common words in common: still look at the narrowest of them
+        if (shared.isEmpty() && smallestCommon != null) {
+            for (int i = 0; i < smallestCommon.size(); i++) {
+                shared.put(smallestCommon.get(i), 1);
+            }
+        }
+
+        List<ItemMatch> matches = new ArrayList<>();
+        for (Map.Entry<Long, Integer> entry : shared.entrySet()) {
+            Candidate candidate = candidates.get(entry.getKey());
+            if (candidate == null) {
+                continue;
+            }
+            double score = score(item, candidate, entry.getValue());
+            if (score >= threshold) {
+                matches.add(new ItemMatch(candidate.snapshot, score));
+            }
+        }
+
+        matches.sort(Comparator.comparingDouble(ItemMatch::getScore).reversed()
+                .thenComparing(match -> match.getItem().getId()));
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    // Negative when the dates are too far apart to be the same object
+    private double score(Candidate item, Candidate candidate, int sharedTerms) {
+        double date = UNKNOWN_DATE_SCORE;
+        if (item.snapshot.getDate() != null && candidate.snapshot.getDate() != null) {
+            long days = Math.abs(ChronoUnit.DAYS.between(item.snapshot.getDate(), candidate.snapshot.getDate()));
+            if (days > windowDays) {
+                return -1;
+            }
+            date = 1.0 - (double) days / (windowDays + 1);
+        }
+
+        double text = sharedTerms / Math.sqrt((double) item.terms.size() * candidate.terms.size());
+        double location = hasPosition(item.snapshot) && hasPosition(candidate.snapshot)
+                ? proximity(item.snapshot, candidate.snapshot)
+                : overlap(item.locationTerms, candidate.locationTerms);
+        return TEXT_WEIGHT * text + LOCATION_WEIGHT * location + DATE_WEIGHT * date;
+    }
+
+    private static boolean hasPosition(ItemSnapshot item) {
+        return item.getLatitude() != null && item.getLongitude() != null;
+    }
+
+    // Coordinates are a far better signal than free-text location names when both reports have them
+    private static double proximity(ItemSnapshot a, ItemSnapshot b) {
+        double distance = GeoArea.distanceKm(a.getLatitude(), a.getLongitude(), b.getLatitude(), b.getLongitude());
+        return Math.max(0, 1 - distance / NEARBY_KM);
+    }
+
+    private static double overlap(Set<String> a, Set<String> b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0;
+        }
+        Set<String> smaller = a.size() <= b.size() ? a : b;
+        Set<String> larger = smaller == a ? b : a;
+        int shared = 0;
+        for (String term : smaller) {
+            if (larger.contains(term)) {
+                shared++;
+            }
+        }
+        return shared / Math.sqrt((double) a.size() * b.size());
+    }
+
+    private static boolean affectsMatching(ItemSnapshot previous, ItemSnapshot current) {
+        return previous == null
+                || !Objects.equals(previous.getTitle(), current.getTitle())
+                || !Objects.equals(previous.getDescription(), current.getDescription())
+                || !Objects.equals(previous.getLocation(), current.getLocation())
+                || !Objects.equals(previous.getLatitude(), current.getLatitude())
+                || !Objects.equals(previous.getLongitude(), current.getLongitude())
+                || !Objects.equals(previous.getDate(), current.getDate())
+                || !Objects.equals(previous.getType(), current.getType());
+    }
+
+    private void add(ItemSnapshot snapshot) {
+        // Only open and claimed items are worth suggesting
+        if (!snapshot.isLive()) {
+            return;
+        }
+        Candidate candidate = new Candidate(snapshot);
+        candidates.put(snapshot.getId(), candidate);
+        if (opposite(candidate.type) == null) {
+            return;
+        }
+        for (String term : candidate.terms) {
+            postings.computeIfAbsent(key(candidate.type, term), k -> new PostingList()).add(snapshot.getId());
+        }
+    }
+
+    private void remove(Long id) {
+        Candidate candidate = candidates.remove(id);
+        if (candidate == null) {
+            return;
+        }
+        for (String term : candidate.terms) {
+            String key = key(candidate.type, term);
+            PostingList list = postings.get(key);
+            if (list != null) {
+                list.remove(id);
+                if (list.isEmpty()) {
+                    postings.remove(key);
+                }
+            }
+        }
+    }
+
+    private static String key(String type, String term) {
+        return type + ':' + term;
+    }
+
+    private static String opposite(String type) {
+        if (LOST.equals(type)) {
+            return FOUND;
+        }
+        if (FOUND.equals(type)) {
+            return LOST;
+        }
+        return null;
+    }
+
+    private static Set<String> terms(String... texts) {
+        Set<String> terms = new HashSet<>();
+        for (String text : texts) {
+            for (String token : TextNormalizer.tokens(text)) {
+                if (token.length() >= MIN_TERM_LENGTH) {
+                    terms.add(token);
+                }
+            }
+        }
+        return terms;
+    }
+
+    private static final class Candidate {
+
+        private final ItemSnapshot snapshot;
+        private final String type;
+        private final Set<String> terms;
+        private final Set<String> locationTerms;
+
+        private Candidate(ItemSnapshot snapshot) {
+            this.snapshot = snapshot;
+            this.type = TextNormalizer.normalize(snapshot.getType());
+            this.terms = terms(snapshot.getTitle(), snapshot.getDescription());
+            this.locationTerms = terms(snapshot.getLocation());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.lostandfound.search;
+
+import java.time.LocalDate;
+
+public class ItemSearchCriteria {
+
+    private String title;
+    private String location;
+    private String query;
+    private String type;
+    private LocalDate date;
+    private LocalDate dateFrom;
+    private LocalDate dateTo;
+    private GeoArea area;
+
+    public ItemSearchCriteria() {
+    }
+
+    public ItemSearchCriteria(String title, String location, String query, String type, LocalDate date) {
+        this.title = title;
+        this.location = location;
+        this.query = query;
+        this.type = type;
+        this.date = date;
+    }
+
+    public ItemSearchCriteria(String title, String location, String query, String type, LocalDate date,
+            GeoArea area) {
+        this(title, location, query, type, date);
+        this.area = area;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    // Free text; every token must appear in the title, description or location
+    public String getQuery() {
+        return query;
+    }
+
+    public void setQuery(String query) {
+        this.query = query;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    // Inclusive range, either end may be open
+    public LocalDate getDateFrom() {
+        return dateFrom;
+    }
+
+    public void setDateFrom(LocalDate dateFrom) {
+        this.dateFrom = dateFrom;
+    }
+
+    public LocalDate getDateTo() {
+        return dateTo;
+    }
+
+    public void setDateTo(LocalDate dateTo) {
+        this.dateTo = dateTo;
+    }
+
+    // Items without coordinates never match an area
+    public GeoArea getArea() {
+        return area;
+    }
+
+    public void setArea(GeoArea area) {
+        this.area = area;
+    }
+}
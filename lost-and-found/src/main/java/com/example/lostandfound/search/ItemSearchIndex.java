@@ -0,0 +1,404 @@
+package com.example.lostandfound.search;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.lostandfound.dto.SearchFacetsDTO;
+import com.example.lostandfound.event.ItemChangedEvent;
+import com.example.lostandfound.event.ItemSnapshot;
+import com.example.lostandfound.repository.ItemRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+// In-memory inverted index over item title, description and location.
+// Each field is split into case-folded trigrams; a substring query intersects the posting
+// lists of its own trigrams and the few surviving candidates are verified against the text.
+// Items with coordinates are also posted under their geohash cells at several precisions, so an
+// area query unions the few cells covering it and verifies the exact distance on the candidates.
+// The same add/remove path maintains the facet counters, so facet queries never touch the table.
+// Kept in sync through ItemChangedEvent after every commit and rebuilt from the table on startup.
+@Component
+public class ItemSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ItemSearchIndex.class);
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private static final char TITLE = 't';
+    private static final char DESCRIPTION = 'd';
+    private static final char LOCATION = 'l';
+    private static final char GEO = 'g';
+
+    // Precision 3 cells are about 156 x 156 km, precision 7 about 150 x 150 m; an area is looked up
+    // at the finest precision that covers it with at most MAX_GEO_CELLS cells
+    private static final int MIN_GEO_PRECISION = 3;
+    private static final int MAX_GEO_CELLS = 32;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${lostandfound.search.index.enabled:true}")
+    private boolean enabled;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IndexedItem> documents = new HashMap<>();
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final FacetCounts facetCounts = new FacetCounts();
+
+    // Ids written by events while a rebuild is running; the rebuild must not overwrite them with older rows
+    private final Set<Long> touchedDuringRebuild = new HashSet<>();
+    private boolean rebuilding;
+    private volatile boolean ready;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("lostandfound.search.index.items", this, ItemSearchIndex::size)
+                .description("Items held in the search index")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+
+        long started = System.currentTimeMillis();
+        ready = false;
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            facetCounts.clear();
+            touchedDuringRebuild.clear();
+            rebuilding = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long lastId = 0;
+        int count = 0;
+        List<ItemSnapshot> batch;
+        do {
+            batch = itemRepository.findSnapshotsAfter(lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            lock.writeLock().lock();
+            try {
+                for (ItemSnapshot item : batch) {
+                    if (!touchedDuringRebuild.contains(item.getId())) {
+                        add(item);
+                        count++;
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+
+        lock.writeLock().lock();
+        try {
+            rebuilding = false;
+            touchedDuringRebuild.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+        log.info("Indexed {} items for search in {} ms", count, System.currentTimeMillis() - started);
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (rebuilding) {
+                touchedDuringRebuild.add(event.getItemId());
+            }
+            remove(event.getItemId());
+            if (event.getCurrent() != null) {
+                add(event.getCurrent());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Returns at most maxResults matches with an id greater than afterId (null for the first page), in id order.
+    // Empty when the index can't answer (disabled, still rebuilding, or no text term long enough
+    // to narrow the candidates) and the caller should fall back to the database.
+    public Optional<List<ItemSnapshot>> search(ItemSearchCriteria criteria, Long afterId, int maxResults) {
+        if (!enabled || !ready) {
+            return Optional.empty();
+        }
+
+        String title = TextNormalizer.normalize(criteria.getTitle());
+        String location = TextNormalizer.normalize(criteria.getLocation());
+        List<String> queryTokens = TextNormalizer.tokens(criteria.getQuery());
+
+        lock.readLock().lock();
+        try {
+            long[] candidates = null;
+            candidates = narrow(candidates, fieldCandidates(TITLE, title));
+            candidates = narrow(candidates, fieldCandidates(LOCATION, location));
+            candidates = narrow(candidates, areaCandidates(criteria.getArea()));
+            for (String token : queryTokens) {
+                long[] tokenCandidates = anyFieldCandidates(token);
+                candidates = narrow(candidates, tokenCandidates);
+            }
+
+            if (candidates == null) {
+                return Optional.empty();
+            }
+
+            int start = 0;
+            if (afterId != null) {
+                start = Arrays.binarySearch(candidates, afterId);
+                start = start >= 0 ? start + 1 : -start - 1;
+            }
+
+            List<ItemSnapshot> results = new ArrayList<>();
+            for (int i = start; i < candidates.length && results.size() < maxResults; i++) {
+                IndexedItem document = documents.get(candidates[i]);
+                if (document != null && document.matches(title, location, queryTokens, criteria)) {
+                    results.add(document.snapshot);
+                }
+            }
+            return Optional.of(results);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Counts by type, date bucket (day, month or year) and location for the items matching the filters;
+    // empty while the index is disabled or rebuilding
+    public Optional<SearchFacetsDTO> facets(String type, LocalDate from, LocalDate to, String location,
+            String interval, int maxLocations) {
+        if (!enabled || !ready) {
+            return Optional.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            return Optional.of(facetCounts.count(type, from, to, location, interval, maxLocations));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<ItemSnapshot> get(Long id) {
+        lock.readLock().lock();
+        try {
+            IndexedItem document = documents.get(id);
+            return document == null ? Optional.empty() : Optional.of(document.snapshot);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(ItemSnapshot snapshot) {
+        // Resolved and deleted items never show up in search, so they don't take up memory either
+        if (!snapshot.isLive()) {
+            return;
+        }
+        IndexedItem document = new IndexedItem(snapshot);
+        documents.put(snapshot.getId(), document);
+        facetCounts.add(snapshot);
+        for (String key : document.keys()) {
+            postings.computeIfAbsent(key, k -> new PostingList()).add(snapshot.getId());
+        }
+    }
+
+    private void remove(Long id) {
+        IndexedItem document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        facetCounts.remove(document.snapshot);
+        for (String key : document.keys()) {
+            PostingList list = postings.get(key);
+            if (list != null) {
+                list.remove(id);
+                if (list.isEmpty()) {
+                    postings.remove(key);
+                }
+            }
+        }
+    }
+
+    // Candidates whose field contains every trigram of the text, or null when the text is too short to narrow
+    private long[] fieldCandidates(char field, String text) {
+        Set<String> grams = TextNormalizer.grams(text);
+        if (grams.isEmpty()) {
+            return null;
+        }
+
+        List<PostingList> lists = new ArrayList<>(grams.size());
+        for (String gram : grams) {
+            PostingList list = postings.get(field + gram);
+            if (list == null) {
+                return new long[0];
+            }
+            lists.add(list);
+        }
+        lists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+
+        long[] result = lists.get(0).toArray();
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = lists.get(i).retainAll(result);
+        }
+        return result;
+    }
+
+    // Items in the cells covering the area, or null when the area is too large to narrow
+    private long[] areaCandidates(GeoArea area) {
+        if (area == null) {
+            return null;
+        }
+        for (int precision = GeoHash.MAX_PRECISION; precision >= MIN_GEO_PRECISION; precision--) {
+            Set<String> cells = GeoHash.covering(area, precision, MAX_GEO_CELLS);
+            if (cells == null) {
+                continue;
+            }
+            long[] result = new long[0];
+            for (String cell : cells) {
+                PostingList list = postings.get(GEO + cell);
+                if (list != null) {
+                    result = PostingList.union(result, list.toArray());
+                }
+            }
+            return result;
+        }
+        return null;
+    }
+
+    private long[] anyFieldCandidates(String token) {
+        long[] title = fieldCandidates(TITLE, token);
+        if (title == null) {
+            return null;
+        }
+        long[] result = PostingList.union(title, fieldCandidates(DESCRIPTION, token));
+        return PostingList.union(result, fieldCandidates(LOCATION, token));
+    }
+
+    private static long[] narrow(long[] candidates, long[] next) {
+        if (next == null) {
+            return candidates;
+        }
+        if (candidates == null) {
+            return next;
+        }
+        return PostingList.intersect(candidates, next);
+    }
+
+    private static final class IndexedItem {
+
+        private final ItemSnapshot snapshot;
+        private final String title;
+        private final String description;
+        private final String location;
+        private final String geoHash;
+
+        private IndexedItem(ItemSnapshot snapshot) {
+            this.snapshot = snapshot;
+            this.title = TextNormalizer.normalize(snapshot.getTitle());
+            this.description = TextNormalizer.normalize(snapshot.getDescription());
+            this.location = TextNormalizer.normalize(snapshot.getLocation());
+            this.geoHash = snapshot.getLatitude() != null && snapshot.getLongitude() != null
+                    ? GeoHash.encode(snapshot.getLatitude(), snapshot.getLongitude(), GeoHash.MAX_PRECISION)
+                    : null;
+        }
+
+        private Set<String> keys() {
+            Set<String> keys = new HashSet<>();
+            for (String gram : TextNormalizer.grams(title)) {
+                keys.add(TITLE + gram);
+            }
+            for (String gram : TextNormalizer.grams(description)) {
+                keys.add(DESCRIPTION + gram);
+            }
+            for (String gram : TextNormalizer.grams(location)) {
+                keys.add(LOCATION + gram);
+            }
+            if (geoHash != null) {
+                for (int precision = MIN_GEO_PRECISION; precision <= GeoHash.MAX_PRECISION; precision++) {
+                    keys.add(GEO + geoHash.substring(0, precision));
+                }
+            }
+            return keys;
+        }
+
+        private boolean matches(String titleTerm, String locationTerm, List<String> queryTokens,
+                ItemSearchCriteria criteria) {
+            if (criteria.getTitle() != null && (snapshot.getTitle() == null || !title.contains(titleTerm))) {
+                return false;
+            }
+            if (criteria.getLocation() != null && (snapshot.getLocation() == null || !location.contains(locationTerm))) {
+                return false;
+            }
+            for (String token : queryTokens) {
+                if (!title.contains(token) && !description.contains(token) && !location.contains(token)) {
+                    return false;
+                }
+            }
+            if (criteria.getArea() != null
+                    && !criteria.getArea().contains(snapshot.getLatitude(), snapshot.getLongitude())) {
+                return false;
+            }
+            if (criteria.getType() != null && !criteria.getType().equals(snapshot.getType())) {
+                return false;
+            }
+            if (criteria.getDateFrom() != null
+                    && (snapshot.getDate() == null || snapshot.getDate().isBefore(criteria.getDateFrom()))) {
+                return false;
+            }
+            if (criteria.getDateTo() != null
+                    && (snapshot.getDate() == null || snapshot.getDate().isAfter(criteria.getDateTo()))) {
+                return false;
+            }
+            return criteria.getDate() == null || criteria.getDate().equals(snapshot.getDate());
+        }
+    }
+}
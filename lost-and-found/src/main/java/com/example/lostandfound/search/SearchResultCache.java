@@ -0,0 +1,173 @@
+package com.example.lostandfound.search;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.lostandfound.datasource.RoutingDataSource;
+import com.example.lostandfound.dto.PublicItemDTO;
+import com.example.lostandfound.event.ItemChangedEvent;
+import com.example.lostandfound.event.ItemSnapshot;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+
+// Caches pages of /api/items/search keyed on the normalized parameters.
+//
+// Invalidation is driven by generation counters per (type, date) scope. An item write bumps
+// the counters of every scope the old and new versions fall into; a cached page is only served
+// while the counter of its own scope is unchanged, so writes to other types or dates leave it alone.
+// Pages that get cached are computed on the primary: the counters move when the primary commits,
+// and a lagging replica would otherwise put the old rows under the new generation.
+@Component
+public class SearchResultCache {
+
+    private static final String ANY = "*";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${lostandfound.search.result-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${lostandfound.search.result-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${lostandfound.search.result-cache.ttl:PT60S}")
+    private Duration ttl;
+
+    // Generations restart at zero on every boot; the epoch keeps ETags from older runs from matching
+    private final String epoch = UUID.randomUUID().toString().substring(0, 8);
+
+    // One counter per "type|date" scope actually written to, so it grows with distinct dates, not items.
+    // Only writes add counters; a scope nobody wrote to is at generation 0, so searches with made-up
+    // types or dates cannot grow the map.
+    private final ConcurrentHashMap<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    private Cache<String, CachedResult> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // A stale entry from an older generation still counts as a hit in these stats
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "searchResults");
+    }
+
+    // Returns the cached rows for these parameters or computes and caches them. The ETag changes
+    // whenever a write could have changed the result.
+    public CachedResult get(ItemSearchCriteria criteria, Long afterId, int maxResults,
+            Supplier<List<PublicItemDTO>> search) {
+        AtomicLong generation = generations.get(scope(criteria.getType(), criteria.getDate()));
+
+        // Read the generation before searching: a write racing with the search bumps it past this value
+        long current = generation != null ? generation.get() : 0;
+        if (!enabled) {
+            return new CachedResult(search.get(), etag(current));
+        }
+
+        String key = key(criteria, afterId, maxResults);
+        CachedResult cached = cache.getIfPresent(key);
+        if (cached != null && cached.generation == current) {
+            return cached;
+        }
+
+        List<PublicItemDTO> rows = RoutingDataSource.onPrimary(search);
+        CachedResult result = new CachedResult(List.copyOf(rows), etag(current), current);
+        cache.put(key, result);
+        return result;
+    }
+
+    // Runs after the search index has applied the same change, so recomputed pages see it
+    @Order(10)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        bump(event.getPrevious());
+        bump(event.getCurrent());
+    }
+
+    private void bump(ItemSnapshot item) {
+        if (item == null) {
+            return;
+        }
+        String type = item.getType() != null ? item.getType() : ANY;
+        String date = item.getDate() != null ? item.getDate().toString() : ANY;
+        increment(type + "|" + date);
+        increment(type + "|" + ANY);
+        increment(ANY + "|" + date);
+        increment(ANY + "|" + ANY);
+    }
+
+    private void increment(String scope) {
+        generations.computeIfAbsent(scope, s -> new AtomicLong()).incrementAndGet();
+    }
+
+    private String etag(long generation) {
+        return "\"" + epoch + "-" + generation + "\"";
+    }
+
+    private static String scope(String type, LocalDate date) {
+        return (type != null ? type : ANY) + "|" + (date != null ? date.toString() : ANY);
+    }
+
+    // Text matching is case-insensitive on every path, so case can be folded; whitespace is significant
+    private static String key(ItemSearchCriteria criteria, Long afterId, int maxResults) {
+        return String.join("\u0000",
+                lower(criteria.getTitle()),
+                lower(criteria.getLocation()),
+                lower(criteria.getQuery()),
+                criteria.getType() != null ? criteria.getType() : "\u0001",
+                String.valueOf(criteria.getDate()),
+                String.valueOf(criteria.getDateFrom()),
+                String.valueOf(criteria.getDateTo()),
+                criteria.getArea() != null ? criteria.getArea().key() : "\u0001",
+                String.valueOf(afterId),
+                String.valueOf(maxResults));
+    }
+
+    private static String lower(String value) {
+        return value != null ? value.toLowerCase(Locale.ROOT) : "\u0001";
+    }
+
+    public static final class CachedResult {
+
+        private final List<PublicItemDTO> rows;
+        private final String etag;
+        private final long generation;
+
+        private CachedResult(List<PublicItemDTO> rows, String etag) {
+            this(rows, etag, -1);
+        }
+
+        private CachedResult(List<PublicItemDTO> rows, String etag, long generation) {
+            this.rows = rows;
+            this.etag = etag;
+            this.generation = generation;
+        }
+
+        public List<PublicItemDTO> getRows() {
+            return rows;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+    }
+}
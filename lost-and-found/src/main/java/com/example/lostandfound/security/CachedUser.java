@@ -0,0 +1,55 @@
+package com.example.lostandfound.security;
+
+import java.util.Collections;
+
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.example.lostandfound.model.User;
+
+// Immutable copy of a user row held by UserCache; never handed to JPA as a managed entity
+public class CachedUser {
+
+    private final Long id;
+    private final String username;
+    private final String password;
+    private final String email;
+    private final String role;
+
+    public CachedUser(User user) {
+        this.id = user.getId();
+        this.username = user.getUsername();
+        this.password = user.getPassword();
+        this.email = user.getEmail();
+        this.role = user.getRole();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    // convert to spring security's UserDetails
+    public UserDetails toUserDetails() {
+        return new org.springframework.security.core.userdetails.User(
+            username, 
+            password, 
+            Collections.singletonList(new SimpleGrantedAuthority(role))
+        );
+    }
+}
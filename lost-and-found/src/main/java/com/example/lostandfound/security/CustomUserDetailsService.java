@@ -1,35 +1,25 @@
 package com.example.lostandfound.security;
 
-import java.util.Collections;
-
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import com.example.lostandfound.model.User;
-import com.example.lostandfound.repository.UserRepository;
-
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
     
     @Autowired
-    private UserRepository userRepository;
+    private UserCache userCache;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        // retrieve custom user from repository
-        User user = userRepository.findByUsername(username)
+        // retrieve custom user from the shared cache, falling back to the repository on a miss
+        CachedUser user = userCache.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
 
         //convert custom user entity inot spring's security's UserDetails
-        return new org.springframework.security.core.userdetails.User(
-            user.getUsername(), 
-            user.getPassword(), 
-            Collections.singletonList(new SimpleGrantedAuthority(user.getRole()))
-        );
+        return user.toUserDetails();
     }
     
 }
@@ -0,0 +1,117 @@
+package com.example.lostandfound.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+
+// Remembers tokens that already passed signature verification, keyed by a SHA-256 digest of the
+// token, so repeat requests skip JWT parsing and the user lookup. An entry never outlives its
+// token's expiry, and max-ttl bounds how long a role change can go unnoticed.
+@Component
+public class JwtAuthenticationCache {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${lostandfound.security.jwt-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${lostandfound.security.jwt-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${lostandfound.security.jwt-cache.max-ttl:PT5M}")
+    private Duration maxTtl;
+
+    private Cache<String, CachedAuthentication> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, CachedAuthentication>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedAuthentication value, long currentTime) {
+                        return timeToLive(value);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedAuthentication value, long currentTime,
+                            long currentDuration) {
+                        return timeToLive(value);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedAuthentication value, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwtAuthentication");
+    }
+
+    // Returns the principal for a previously verified token, or null on a miss
+    public UserDetails get(String token) {
+        if (!enabled) {
+            return null;
+        }
+        CachedAuthentication cached = cache.getIfPresent(digest(token));
+        return cached != null ? cached.userDetails : null;
+    }
+
+    public void put(String token, UserDetails userDetails, Date expiresAt) {
+        if (!enabled || expiresAt == null) {
+            return;
+        }
+        cache.put(digest(token), new CachedAuthentication(userDetails, expiresAt.getTime()));
+    }
+
+    // Drop every cached token of a user, e.g. after their account changed
+    public void evictUser(String username) {
+        cache.asMap().values().removeIf(cached -> cached.userDetails.getUsername().equals(username));
+    }
+
+    private long timeToLive(CachedAuthentication value) {
+        long untilExpiry = Math.max(0, value.expiresAtMillis - System.currentTimeMillis());
+        return Math.min(Duration.ofMillis(untilExpiry).toNanos(), maxTtl.toNanos());
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            // Every JRE ships SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static final class CachedAuthentication {
+
+        private final UserDetails userDetails;
+        private final long expiresAtMillis;
+
+        private CachedAuthentication(UserDetails userDetails, long expiresAtMillis) {
+            this.userDetails = userDetails;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
@@ -6,11 +6,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -25,6 +29,12 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     @Autowired
     private CustomUserDetailsService customUserDetailsService;
 
+    @Autowired
+    private JwtAuthenticationCache jwtAuthenticationCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
@@ -39,24 +49,21 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         
         final String authorizationHeader = request.getHeader("Authorization");
 
-        String username = null;
         String jwtToken = null;
 
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
             // removed the Bearer perfix to get the raw token
             jwtToken = authorizationHeader.substring(7);
-            try {
-                username = jwtUtil.extractUsername(jwtToken);
-            } catch (ExpiredJwtException e) {
-                logger.warn("JWT Token has expired");
-            } catch (Exception e) {
-                logger.warn("Unable to extract JWT Token");
-            }
         }
         
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
-            if (jwtUtil.validateToken(jwtToken, userDetails.getUsername())) {
+        if (jwtToken != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            // Tokens seen before were already verified; only new ones are parsed and looked up
+            UserDetails userDetails = jwtAuthenticationCache.get(jwtToken);
+            if (userDetails == null) {
+                userDetails = verify(jwtToken);
+            }
+
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -66,5 +73,34 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
         chain.doFilter(request, response);
     }
+
+    // Parses and verifies the token once, loads its user and caches the result; null if the token is not valid
+    private UserDetails verify(String jwtToken) {
+        // Cache hits skip this entirely; their rate shows up in the jwtAuthentication cache metrics
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "invalid";
+        try {
+            Claims claims = jwtUtil.extractAllClaims(jwtToken);
+            UserDetails userDetails = customUserDetailsService.loadUserByUsername(claims.getSubject());
+            jwtAuthenticationCache.put(jwtToken, userDetails, claims.getExpiration());
+            outcome = "valid";
+            return userDetails;
+        } catch (ExpiredJwtException e) {
+            outcome = "expired";
+            logger.warn("JWT Token has expired");
+        } catch (UsernameNotFoundException e) {
+            outcome = "unknown_user";
+            logger.warn("JWT Token belongs to an unknown user");
+        } catch (Exception e) {
+            logger.warn("Unable to extract JWT Token");
+        } finally {
+            sample.stop(Timer.builder("lostandfound.jwt.verification")
+                    .description("Parsing and verifying a JWT not found in the cache, including the user lookup")
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        return null;
+    }
     
 }
@@ -1,6 +1,7 @@
 package com.example.lostandfound.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -20,15 +21,25 @@ public class JwtUtil {
     
     private final long EXPIRATION_TIME = 10 * 60 * 60 * 1000; // 10 hours
 
+    // Parsers are immutable and thread-safe, so build one instead of one per call
+    private final JwtParser parser = Jwts.parserBuilder()
+            .setSigningKey(SECRET_KEY)
+            .build();
+
     // Generate a token for a given username
     public String generateToken(String username) {
+        return generateToken(username, EXPIRATION_TIME);
+    }
+
+    // Same, valid for the given number of milliseconds
+    public String generateToken(String username, long expirationMillis) {
         Map<String, Object> claims = new HashMap<>();
-        return createToken(claims, username);
+        return createToken(claims, username, expirationMillis);
     }
 
-    private String createToken(Map<String, Object> claims, String subject) {
+    private String createToken(Map<String, Object> claims, String subject, long expirationMillis) {
         Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + EXPIRATION_TIME);
+        Date expiryDate = new Date(now.getTime() + expirationMillis);
 
         return Jwts.builder()
                 .setClaims(claims)
@@ -41,8 +52,8 @@ public class JwtUtil {
 
     // Validate the token by checking username and expiration
     public Boolean validateToken(String token, String username) {
-        final String tokenUsername = extractUsername(token);
-        return (tokenUsername.equals(username) && !isTokenExpired(token));
+        final Claims claims = extractAllClaims(token);
+        return (claims.getSubject().equals(username) && !isTokenExpired(claims));
     }
 
     // Extract the username (subject) from the token
@@ -51,16 +62,13 @@ public class JwtUtil {
     }
 
     // Check if the token has expired
-    private Boolean isTokenExpired(String token) {
-        return extractAllClaims(token).getExpiration().before(new Date());
+    private Boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
-    // Extract all claims from the token using the new parserBuilder
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(SECRET_KEY)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    // Verify the signature once and return all claims; throws JwtException (including
+    // ExpiredJwtException) when the token can't be trusted
+    public Claims extractAllClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
-}
\ No newline at end of file
+}
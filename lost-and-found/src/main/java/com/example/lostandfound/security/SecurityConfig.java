@@ -1,19 +1,77 @@
 package com.example.lostandfound.security;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 
+import com.example.lostandfound.ratelimit.RateLimitFilter;
+
+import jakarta.servlet.DispatcherType;
+
 @Configuration
 public class SecurityConfig {
 
     @Autowired
     private JwtRequestFilter jwtRequestFilter;
+
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
+    @Value("${lostandfound.metrics.username:prometheus}")
+    private String metricsUsername;
+
+    @Value("${lostandfound.metrics.password:}")
+    private String metricsPassword;
+
+    // Actuator: health stays public for the load balancer, everything else (the Prometheus scrape
+    // included) needs the scraper's account over HTTP Basic. With no password configured there is
+    // no such account and only health is reachable.
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorFilterChain(HttpSecurity http) throws Exception {
+        http
+            .securityMatcher("/actuator/**")
+            .csrf(csrf -> csrf.disable())
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .authorizeHttpRequests(authorize -> authorize
+                .requestMatchers("/actuator/health").permitAll()
+                .anyRequest().hasRole("METRICS")
+            )
+            .httpBasic(Customizer.withDefaults())
+            .authenticationManager(new ProviderManager(metricsAuthenticationProvider()));
+
+        return http.build();
+    }
+
+    private DaoAuthenticationProvider metricsAuthenticationProvider() {
+        // A configured secret rather than a user's password, so the lowest BCrypt cost is enough and
+        // a flood of wrong guesses can't tie up request threads
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4);
+        InMemoryUserDetailsManager accounts = new InMemoryUserDetailsManager();
+        if (!metricsPassword.isEmpty()) {
+            accounts.createUser(User.withUsername(metricsUsername)
+                    .password(encoder.encode(metricsPassword))
+                    .roles("METRICS")
+                    .build());
+        }
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setPasswordEncoder(encoder);
+        provider.setUserDetailsService(accounts);
+        return provider;
+    }
     
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
@@ -21,12 +79,18 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(authorize -> authorize
-                .requestMatchers("/api/auth/**", "/api/items/search").permitAll() //all endpoints other then these need auth
+                .requestMatchers("/api/auth/**", "/api/items/search", "/api/items/search/facets").permitAll() //all endpoints other then these need auth
+                .requestMatchers(HttpMethod.GET, "/api/items/feed").permitAll() // public item changes, same data as search
+                .requestMatchers(HttpMethod.GET, "/api/images/**").permitAll() // images are linked from public search results
+                .requestMatchers("/error").permitAll() // so 400s from public endpoints aren't turned into 403s
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll() // the feed's completion dispatch, already authorized
                 .anyRequest().authenticated()
             );
         
         // Add JWT filter before UsernamePasswordAuthenticationFilter
         http.addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class);
+        // Rejected clients should cost as little as possible, so this goes first
+        http.addFilterBefore(rateLimitFilter, JwtRequestFilter.class);
         
         return http.build();
     }
@@ -0,0 +1,93 @@
+package com.example.lostandfound.security;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.lostandfound.event.UserChangedEvent;
+import com.example.lostandfound.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+
+// Size and TTL bounded username -> user cache shared by authentication and the controllers,
+// so a write request resolves its user once instead of once per layer.
+// Entries are dropped as soon as the user row changes.
+@Component
+public class UserCache {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtAuthenticationCache jwtAuthenticationCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${lostandfound.security.user-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${lostandfound.security.user-cache.ttl:PT10M}")
+    private Duration ttl;
+
+    private Cache<String, CachedUser> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users");
+    }
+
+    // Unknown usernames are not cached, so a later registration is seen immediately
+    public Optional<CachedUser> findByUsername(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        CachedUser user = cache.get(username, key -> userRepository.findByUsername(key)
+                .map(CachedUser::new)
+                .orElse(null));
+        return Optional.ofNullable(user);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        invalidate(event.getUserId(), event.getUsername());
+    }
+
+    public void invalidate(Long userId, String username) {
+        if (username != null) {
+            cache.invalidate(username);
+            jwtAuthenticationCache.evictUser(username);
+        }
+        // The username itself may have changed, so also drop entries cached under the old name
+        if (userId != null) {
+            cache.asMap().entrySet().removeIf(entry -> {
+                if (!userId.equals(entry.getValue().getId())) {
+                    return false;
+                }
+                jwtAuthenticationCache.evictUser(entry.getKey());
+                return true;
+            });
+        }
+    }
+
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+}
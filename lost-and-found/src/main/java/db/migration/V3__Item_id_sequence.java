@@ -0,0 +1,32 @@
+package db.migration;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+// Switches item ids from IDENTITY to a pooled sequence so Hibernate can batch inserts.
+// Written in Java because the start value depends on the ids already in the table.
+public class V3__Item_id_sequence extends BaseJavaMigration {
+
+    // Must match allocationSize of the @SequenceGenerator on Item
+    private static final int INCREMENT = 50;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        long maxId;
+        try (Statement statement = context.getConnection().createStatement();
+                ResultSet result = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM item")) {
+            result.next();
+            maxId = result.getLong(1);
+        }
+
+        // Hibernate's pooled optimizer treats each sequence value as the top of a block of INCREMENT ids,
+        // so the first value must leave a whole block above the existing ids
+        long start = maxId == 0 ? 1 : maxId + INCREMENT;
+        try (Statement statement = context.getConnection().createStatement()) {
+            statement.execute("CREATE SEQUENCE item_seq START WITH " + start + " INCREMENT BY " + INCREMENT);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+-- Baseline: the schema Hibernate used to generate from the entities
+CREATE TABLE users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username VARCHAR(255),
+    password VARCHAR(255),
+    email VARCHAR(255),
+    role VARCHAR(255)
+);
+
+CREATE TABLE item (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id BIGINT,
+    title VARCHAR(255),
+    description VARCHAR(255),
+    location VARCHAR(255),
+    date DATE,
+    type VARCHAR(255),
+    image_url VARCHAR(255),
+    CONSTRAINT fk_item_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
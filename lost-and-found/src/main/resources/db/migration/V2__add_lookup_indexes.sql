@@ -0,0 +1,17 @@
+-- Every authenticated request and every write resolves a user by name
+ALTER TABLE users ADD CONSTRAINT uk_users_username UNIQUE (username);
+
+-- Ownership lookups and the foreign key itself
+CREATE INDEX idx_item_user_id ON item (user_id);
+
+-- Search filters: type alone or type + date share one index, date alone gets its own
+CREATE INDEX idx_item_type_date ON item (type, date);
+CREATE INDEX idx_item_date ON item (date);
+
+-- Lower-cased copies maintained by the Item entity so case-insensitive matching
+-- doesn't apply LOWER() to every row and equality/prefix lookups can use an index
+ALTER TABLE item ADD COLUMN title_lower VARCHAR(255);
+ALTER TABLE item ADD COLUMN location_lower VARCHAR(255);
+UPDATE item SET title_lower = LOWER(title), location_lower = LOWER(location);
+CREATE INDEX idx_item_title_lower ON item (title_lower);
+CREATE INDEX idx_item_location_lower ON item (location_lower);
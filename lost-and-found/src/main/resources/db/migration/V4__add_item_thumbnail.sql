@@ -0,0 +1,2 @@
+-- Thumbnail generated from an uploaded image; null until the worker has produced it
+ALTER TABLE item ADD COLUMN thumbnail_url VARCHAR(255);
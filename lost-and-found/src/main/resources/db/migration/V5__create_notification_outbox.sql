@@ -0,0 +1,17 @@
+-- Transactional outbox for e-mail notifications: rows are written together with the change
+-- that caused them and delivered later by OutboxDispatcher
+CREATE TABLE notification_outbox (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body VARCHAR(4000) NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    attempts INT NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    next_attempt_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    sent_at TIMESTAMP(6) WITH TIME ZONE,
+    last_error VARCHAR(1000)
+);
+
+-- The dispatcher polls for due pending rows
+CREATE INDEX idx_outbox_status_next_attempt ON notification_outbox (status, next_attempt_at);
@@ -0,0 +1,5 @@
+-- Optional position of an item. Radius and bounding-box searches are answered from the geohash
+-- cells in ItemSearchIndex; this index serves the SQL fallback's latitude range while it rebuilds.
+ALTER TABLE item ADD COLUMN latitude DOUBLE PRECISION;
+ALTER TABLE item ADD COLUMN longitude DOUBLE PRECISION;
+CREATE INDEX idx_item_latitude_longitude ON item (latitude, longitude);
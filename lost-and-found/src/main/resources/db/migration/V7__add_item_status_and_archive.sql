@@ -0,0 +1,27 @@
+-- Lifecycle of a report. Only OPEN and CLAIMED items are live: listed, searched, matched and counted.
+-- closed_at records when an item was resolved or deleted and drives the archiver's retention.
+ALTER TABLE item ADD COLUMN status VARCHAR(16) DEFAULT 'OPEN' NOT NULL;
+ALTER TABLE item ADD COLUMN closed_at TIMESTAMP(6) WITH TIME ZONE;
+CREATE INDEX idx_item_status_closed_at ON item (status, closed_at);
+
+-- Items moved out of the hot table by ItemArchiver. No foreign key, so owners can still be removed.
+CREATE TABLE item_archive (
+    id BIGINT PRIMARY KEY,
+    user_id BIGINT,
+    title VARCHAR(255),
+    description VARCHAR(255),
+    location VARCHAR(255),
+    date DATE,
+    type VARCHAR(255),
+    image_url VARCHAR(255),
+    thumbnail_url VARCHAR(255),
+    latitude DOUBLE PRECISION,
+    longitude DOUBLE PRECISION,
+    status VARCHAR(16) NOT NULL,
+    closed_at TIMESTAMP(6) WITH TIME ZONE,
+    title_lower VARCHAR(255),
+    location_lower VARCHAR(255),
+    archived_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX idx_item_archive_type_date ON item_archive (type, date);
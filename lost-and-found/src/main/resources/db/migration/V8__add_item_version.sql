@@ -0,0 +1,3 @@
+-- Optimistic locking counter for Item, also the ETag of GET /api/items/{id}.
+-- Rows written before this column existed, and JDBC bulk loads, start at version 0.
+ALTER TABLE item ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,9 @@
+-- Shared rate limit state for multi-node deployments (lostandfound.rate-limit.store=jdbc).
+-- One row per key holding the GCRA theoretical arrival time in epoch milliseconds; a row whose
+-- tat has passed is a full bucket and is deleted by the cleanup.
+CREATE TABLE rate_limit_bucket (
+    bucket_key VARCHAR(300) PRIMARY KEY,
+    tat BIGINT NOT NULL
+);
+
+CREATE INDEX idx_rate_limit_bucket_tat ON rate_limit_bucket (tat);
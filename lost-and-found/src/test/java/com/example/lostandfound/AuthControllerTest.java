@@ -0,0 +1,77 @@
+package com.example.lostandfound;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.example.lostandfound.repository.ItemRepository;
+import com.example.lostandfound.repository.UserRepository;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class AuthControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @BeforeEach
+    public void setup() {
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void testRegisterThenLogin() throws Exception {
+        // Hashing happens off the request thread, so both calls complete through an async dispatch
+        MvcResult register = mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"userC\",\"password\":\"passwordC\",\"email\":\"userC@example.com\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(register))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value("userC"))
+                .andExpect(jsonPath("$.role").value("ROLE_USER"));
+
+        MvcResult login = mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"userC\",\"password\":\"passwordC\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(login))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").exists());
+    }
+
+    @Test
+    public void testLoginWithWrongPassword() throws Exception {
+        MvcResult register = mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"userD\",\"password\":\"passwordD\",\"email\":\"userD@example.com\"}"))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(register))
+                .andExpect(status().isOk());
+
+        MvcResult login = mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"userD\",\"password\":\"wrong\"}"))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(login))
+                .andExpect(status().isUnauthorized());
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.lostandfound;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.lostandfound.archive.ItemArchiver;
+import com.example.lostandfound.model.Item;
+import com.example.lostandfound.model.User;
+import com.example.lostandfound.repository.ArchivedItemRepository;
+import com.example.lostandfound.repository.ItemRepository;
+import com.example.lostandfound.repository.UserRepository;
+import com.example.lostandfound.security.JwtUtil;
+
+// The scheduler is switched off so each test drives the archiver itself
+@SpringBootTest(properties = "lostandfound.archive.enabled=false")
+@AutoConfigureMockMvc
+public class ItemArchiverTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ArchivedItemRepository archivedItemRepository;
+
+    @Autowired
+    private ItemArchiver itemArchiver;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private User owner;
+    private String token;
+
+    @BeforeEach
+    public void setup() {
+        archivedItemRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+
+        owner = userRepository.save(new User("owner", "x", "owner@example.com", "ROLE_USER"));
+        token = jwtUtil.generateToken(owner.getUsername());
+    }
+
+    @Test
+    public void testSoftDeleteHidesItem() throws Exception {
+        Item item = save("Green Scarf", LocalDate.now());
+
+        mockMvc.perform(delete("/api/items/" + item.getId())
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        // Still in the table for the archiver, gone for everyone else
+        assertEquals(Item.DELETED, itemRepository.findById(item.getId()).get().getStatus());
+        mockMvc.perform(get("/api/items/" + item.getId())
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/items/search").param("title", "Scarf"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    public void testStatusChange() throws Exception {
+        Item item = save("Red Umbrella", LocalDate.now());
+
+        mockMvc.perform(put("/api/items/" + item.getId() + "/status")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"RESOLVED\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value(Item.RESOLVED));
+        mockMvc.perform(get("/api/items/search").param("title", "Umbrella"))
+                .andExpect(jsonPath("$.length()").value(0));
+
+        // Reopening brings it back; DELETED is only reachable through DELETE
+        mockMvc.perform(put("/api/items/" + item.getId() + "/status")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"OPEN\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/items/search").param("title", "Umbrella"))
+                .andExpect(jsonPath("$.length()").value(1));
+        mockMvc.perform(put("/api/items/" + item.getId() + "/status")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"DELETED\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testArchiveMovesClosedAndOldItems() throws Exception {
+        Instant longAgo = Instant.now().minus(Duration.ofDays(40));
+        Item resolved = save("Black Wallet", LocalDate.now().minusDays(50));
+        resolved.changeStatus(Item.RESOLVED, longAgo);
+        itemRepository.save(resolved);
+        Item deleted = save("Silver Watch", LocalDate.now().minusDays(50));
+        deleted.changeStatus(Item.DELETED, longAgo);
+        itemRepository.save(deleted);
+        Item old = save("Blue Notebook", LocalDate.now().minusYears(2));
+        Item recent = save("Grey Jacket", LocalDate.now());
+        recent.changeStatus(Item.RESOLVED, Instant.now());
+        itemRepository.save(recent);
+
+        assertEquals(3, itemArchiver.archive());
+
+        // Deleted items are dropped, the others are copied over
+        assertEquals(1, itemRepository.count());
+        assertEquals(2, archivedItemRepository.count());
+        assertFalse(archivedItemRepository.existsById(deleted.getId()));
+
+        mockMvc.perform(get("/api/items/archive").param("q", "wallet")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(resolved.getId()))
+                .andExpect(jsonPath("$[0].status").value(Item.RESOLVED));
+        mockMvc.perform(get("/api/items/search").param("title", "Notebook"))
+                .andExpect(jsonPath("$.length()").value(0));
+        mockMvc.perform(get("/api/items/archive")
+                .param("type", "lost")
+                .param("to", LocalDate.now().minusYears(1).toString())
+                .header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(old.getId()));
+    }
+
+    private Item save(String title, LocalDate date) {
+        Item item = new Item(title, title + " left behind", "Library", date, "lost", "");
+        item.setUser(owner);
+        return itemRepository.save(item);
+    }
+}
@@ -1,6 +1,12 @@
 package com.example.lostandfound;
 
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.time.LocalDate;
+import java.util.List;
+
+import javax.imageio.ImageIO;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -9,11 +15,16 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -23,6 +34,7 @@ import com.example.lostandfound.model.User;
 import com.example.lostandfound.repository.ItemRepository;
 import com.example.lostandfound.repository.UserRepository;
 import com.example.lostandfound.security.JwtUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -43,6 +55,9 @@ public class ItemControllerTest {
     @Autowired
     private BCryptPasswordEncoder passwordEncoder;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     private User userA;
     private User userB;
     private Item item;
@@ -148,6 +163,341 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$[0].title").value("Lost Wallet"));
     }
     
+    @Test
+    public void testSearchByFreeText() throws Exception {
+        // Every token has to appear in the title, description or location: only "Found Keys" mentions the cafeteria
+        mockMvc.perform(get("/api/items/search")
+                .param("q", "keys cafeteria")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].title").value("Found Keys"));
+    }
+    
+    @Test
+    public void testSearchByRadiusAndBoundingBox() throws Exception {
+        // Library and cafeteria are about 330 m apart, the campus item about 11 km north
+        item.setLatitude(51.5);
+        item.setLongitude(-0.12);
+        item2.setLatitude(51.6);
+        item2.setLongitude(-0.12);
+        item3.setLatitude(51.503);
+        item3.setLongitude(-0.12);
+        itemRepository.saveAll(List.of(item, item2, item3));
+
+        mockMvc.perform(get("/api/items/search")
+                .param("lat", "51.5")
+                .param("lng", "-0.12")
+                .param("radiusKm", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+
+        // Combined with the other filters
+        mockMvc.perform(get("/api/items/search")
+                .param("lat", "51.5")
+                .param("lng", "-0.12")
+                .param("radiusKm", "1")
+                .param("type", "found"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].title").value("Found Keys"));
+
+        mockMvc.perform(get("/api/items/search")
+                .param("bbox", "51.55,-0.2,51.65,0"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].title").value("Lost Wallet"));
+
+        // Incomplete circle
+        mockMvc.perform(get("/api/items/search")
+                .param("lat", "51.5")
+                .param("radiusKm", "1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testSearchByDateRange() throws Exception {
+        // Only "Lost Wallet" is dated inside February 2025
+        mockMvc.perform(get("/api/items/search")
+                .param("from", "2025-02-01")
+                .param("to", "2025-02-28"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].title").value("Lost Wallet"));
+    }
+
+    @Test
+    public void testSearchFacets() throws Exception {
+        mockMvc.perform(get("/api/items/search/facets"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.types.lost").value(2))
+                .andExpect(jsonPath("$.types.found").value(1))
+                .andExpect(jsonPath("$.locations.library").value(1));
+
+        mockMvc.perform(get("/api/items/search/facets")
+                .param("type", "lost")
+                .param("from", "2025-01-01")
+                .param("to", "2025-12-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.dates['2025-02']").value(1))
+                .andExpect(jsonPath("$.locations.campus").value(1));
+
+        // Counters follow writes: moving the wallet to March shifts its bucket
+        item2.setDate(LocalDate.of(2025, 3, 2));
+        itemRepository.save(item2);
+        mockMvc.perform(get("/api/items/search/facets")
+                .param("from", "2025-01-01")
+                .param("to", "2025-12-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dates['2025-03']").value(1))
+                .andExpect(jsonPath("$.dates['2025-02']").doesNotExist());
+    }
+
+    @Test
+    public void testSearchPagination() throws Exception {
+        // Two items match "Lost"; with a page size of 1 the first page links to the second
+        MvcResult firstPage = mockMvc.perform(get("/api/items/search")
+                .param("title", "Lost")
+                .param("limit", "1")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].title").value("Lost Keys"))
+                .andExpect(header().exists("X-Next-Page-Token"))
+                .andReturn();
+
+        String pageToken = firstPage.getResponse().getHeader("X-Next-Page-Token");
+        mockMvc.perform(get("/api/items/search")
+                .param("title", "Lost")
+                .param("limit", "1")
+                .param("pageToken", pageToken)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].title").value("Lost Wallet"))
+                .andExpect(header().doesNotExist("X-Next-Page-Token"));
+    }
+
+    @Test
+    public void testSearchWithInvalidPageToken() throws Exception {
+        mockMvc.perform(get("/api/items/search")
+                .param("title", "Lost")
+                .param("pageToken", "not-a-token")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    public void testSearchEtagIsInvalidatedByMatchingWrites() throws Exception {
+        String etag = mockMvc.perform(get("/api/items/search")
+                .param("title", "Lost")
+                .param("type", "lost"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Unchanged results: 304 without a body
+        mockMvc.perform(get("/api/items/search")
+                .param("title", "Lost")
+                .param("type", "lost")
+                .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        // A write to another type doesn't touch this query's scope
+        Item found = new Item("Found Umbrella", "Black umbrella", "Library", LocalDate.now(), "found", "");
+        found.setUser(userB);
+        itemRepository.save(found);
+        mockMvc.perform(get("/api/items/search")
+                .param("title", "Lost")
+                .param("type", "lost")
+                .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        // A new lost item does
+        Item lost = new Item("Lost Phone", "Blue phone", "Campus", LocalDate.now(), "lost", "");
+        lost.setUser(userA);
+        itemRepository.save(lost);
+        mockMvc.perform(get("/api/items/search")
+                .param("title", "Lost")
+                .param("type", "lost")
+                .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3));
+    }
+
+    @Test
+    public void testItemEtagAndIfMatch() throws Exception {
+        String token = jwtUtil.generateToken(userA.getUsername());
+        String etag = mockMvc.perform(get("/api/items/" + item.getId())
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/items/" + item.getId())
+                .header("Authorization", "Bearer " + token)
+                .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        String body = "{\"title\":\"Lost Keys\",\"description\":\"Keys with a red tag\",\"location\":\"Library\","
+                + "\"date\":\"" + LocalDate.now() + "\",\"type\":\"lost\",\"imageUrl\":\"\"}";
+        String newEtag = mockMvc.perform(put("/api/items/" + item.getId())
+                .header("Authorization", "Bearer " + token)
+                .header("If-Match", etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotNull(newEtag);
+
+        // A second editor still holding the old version is turned away, and so is a delete based on it
+        mockMvc.perform(put("/api/items/" + item.getId())
+                .header("Authorization", "Bearer " + token)
+                .header("If-Match", etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(header().string("ETag", newEtag));
+        mockMvc.perform(delete("/api/items/" + item.getId())
+                .header("Authorization", "Bearer " + token)
+                .header("If-Match", etag))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(get("/api/items/" + item.getId())
+                .header("Authorization", "Bearer " + token)
+                .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description").value("Keys with a red tag"));
+    }
+
+    @Test
+    public void testExportStreamsNdjson() throws Exception {
+        String token = jwtUtil.generateToken(userA.getUsername());
+        MvcResult result = mockMvc.perform(get("/api/items/export")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn();
+
+        // One JSON document per line, one line per item
+        String[] lines = result.getResponse().getContentAsString().trim().split("\n");
+        assertEquals(3, lines.length);
+        assertEquals(item.getId().longValue(), objectMapper.readTree(lines[0]).get("id").asLong());
+    }
+
+    @Test
+    public void testBatchCreateReportsPerItemResults() throws Exception {
+        String token = jwtUtil.generateToken(userB.getUsername());
+        String body = "[{\"title\":\"Umbrella\",\"type\":\"found\",\"location\":\"Gym\"},"
+                + "{\"title\":\"\",\"type\":\"lost\"},"
+                + "{\"title\":\"Scarf\",\"type\":\"lost\",\"location\":\"Hall\"}]";
+        mockMvc.perform(post("/api/items/batch")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[1].status").value("REJECTED"))
+                .andExpect(jsonPath("$[2].status").value("CREATED"));
+
+        assertEquals(5, itemRepository.count());
+    }
+
+    @Test
+    public void testImageUploadGeneratesThumbnail() throws Exception {
+        BufferedImage image = new BufferedImage(1200, 800, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", png);
+        MockMultipartFile file = new MockMultipartFile("file", "keys.png", "image/png", png.toByteArray());
+
+        String token = jwtUtil.generateToken(userA.getUsername());
+        mockMvc.perform(multipart("/api/items/" + item.getId() + "/image")
+                .file(file)
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.imageUrl").exists());
+
+        // The thumbnail is produced in the background
+        String thumbnailUrl = null;
+        for (int i = 0; i < 50 && thumbnailUrl == null; i++) {
+            thumbnailUrl = itemRepository.findById(item.getId()).get().getThumbnailUrl();
+            if (thumbnailUrl == null) {
+                Thread.sleep(100);
+            }
+        }
+        assertNotNull(thumbnailUrl);
+
+        MvcResult result = mockMvc.perform(get(thumbnailUrl))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/jpeg"))
+                .andExpect(header().string("Cache-Control", "public, max-age=31536000, immutable"))
+                .andReturn();
+        BufferedImage thumbnail = ImageIO.read(new ByteArrayInputStream(result.getResponse().getContentAsByteArray()));
+        assertEquals(320, thumbnail.getWidth());
+    }
+
+    @Test
+    public void testUploadedImageStaysWithItsItem() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "keys.png", "image/png", new byte[] { 1 });
+        String tokenA = jwtUtil.generateToken(userA.getUsername());
+        mockMvc.perform(multipart("/api/items/" + item.getId() + "/image")
+                .file(file)
+                .header("Authorization", "Bearer " + tokenA))
+                .andExpect(status().isAccepted());
+        String imageUrl = itemRepository.findById(item.getId()).get().getImageUrl();
+
+        // Another user can neither create nor edit an item pointing at A's upload
+        String tokenB = jwtUtil.generateToken(userB.getUsername());
+        String body = "{\"title\":\"Found Keys\",\"description\":\"Keys\",\"location\":\"Cafeteria\","
+                + "\"date\":\"" + LocalDate.now() + "\",\"type\":\"found\",\"imageUrl\":\"" + imageUrl + "\"}";
+        mockMvc.perform(post("/api/items")
+                .header("Authorization", "Bearer " + tokenB)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(put("/api/items/" + item3.getId())
+                .header("Authorization", "Bearer " + tokenB)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isBadRequest());
+        assertEquals("", itemRepository.findById(item3.getId()).get().getImageUrl());
+
+        // The owner may send the item's own image back unchanged
+        mockMvc.perform(put("/api/items/" + item.getId())
+                .header("Authorization", "Bearer " + tokenA)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imageUrl").value(imageUrl));
+        mockMvc.perform(get(imageUrl))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void testImageUploadRejectsOtherUsers() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "keys.png", "image/png", new byte[] { 1 });
+        String token = jwtUtil.generateToken(userB.getUsername());
+        mockMvc.perform(multipart("/api/items/" + item.getId() + "/image")
+                .file(file)
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void testMatchesPairLostWithFound() throws Exception {
+        String token = jwtUtil.generateToken(userA.getUsername());
+        // "Lost Keys" and "Found Keys" share a word and a date; the other lost item is never a candidate
+        mockMvc.perform(get("/api/items/" + item.getId() + "/matches")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].item.id").value(item3.getId()))
+                .andExpect(jsonPath("$[0].score").isNumber());
+    }
+    
     // Contact endpoint should be secured and return contact info only for authenticated users
     @Test
     public void testContactEndpointUnauthorized() throws Exception {
@@ -0,0 +1,108 @@
+package com.example.lostandfound;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import com.example.lostandfound.feed.ItemFeed;
+
+// Subscriptions stay open for the rest of a test context, so each test gets a fresh one
+@SpringBootTest(properties = {
+    "lostandfound.feed.max-subscribers=4",
+    "lostandfound.feed.max-subscribers-per-address=2"
+})
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class ItemFeedLimitTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ItemFeed itemFeed;
+
+    @Test
+    public void testSubscribersAreLimitedPerAddressAndOverall() throws Exception {
+        MvcResult first = subscribe("10.0.0.1");
+        subscribe("10.0.0.1");
+        refused("10.0.0.1");
+
+        // Other addresses still get in until the overall limit
+        subscribe("10.0.0.2");
+        subscribe("10.0.0.3");
+        refused("10.0.0.4");
+        assertEquals(4, itemFeed.size());
+
+        // A subscriber that leaves gives back both its slots
+        first.getRequest().getAsyncContext().complete();
+        assertEquals(3, itemFeed.size());
+        subscribe("10.0.0.1");
+        refused("10.0.0.1");
+    }
+
+    @Test
+    public void testConcurrentSubscribesNeverExceedLimit() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < 64; i++) {
+                String address = "10.0.1." + i;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return itemFeed.subscribe(null, null, address) != null;
+                }));
+            }
+            start.countDown();
+
+            int accepted = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(10, TimeUnit.SECONDS)) {
+                    accepted++;
+                }
+            }
+            assertEquals(4, accepted);
+            assertEquals(4, itemFeed.size());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private MvcResult subscribe(String address) throws Exception {
+        return mockMvc.perform(get("/api/items/feed").with(from(address)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private void refused(String address) throws Exception {
+        mockMvc.perform(get("/api/items/feed").with(from(address)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists("Retry-After"));
+    }
+
+    private static RequestPostProcessor from(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+}
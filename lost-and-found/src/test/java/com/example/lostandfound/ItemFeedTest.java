@@ -0,0 +1,96 @@
+package com.example.lostandfound;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import com.example.lostandfound.model.Item;
+import com.example.lostandfound.model.User;
+import com.example.lostandfound.repository.ItemRepository;
+import com.example.lostandfound.repository.UserRepository;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ItemFeedTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private User owner;
+
+    @BeforeEach
+    public void setup() {
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+        owner = userRepository.save(new User("owner", "x", "owner@example.com", "ROLE_USER"));
+    }
+
+    @Test
+    public void testFeedStreamsMatchingChanges() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/items/feed").param("type", "found"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        Item lost = new Item("Red Scarf", "Wool scarf", "Gym", LocalDate.now(), "lost", "");
+        lost.setUser(owner);
+        itemRepository.save(lost);
+        Item found = new Item("Black Umbrella", "Folding umbrella", "Library", LocalDate.now(), "found", "");
+        found.setUser(owner);
+        itemRepository.save(found);
+        itemRepository.delete(found);
+
+        // Events are written by the feed's sender threads
+        String stream = awaitContent(result.getResponse(), "event:deleted");
+        assertTrue(stream.contains("event:created"));
+        assertTrue(stream.contains("Black Umbrella"));
+        assertFalse(stream.contains("Red Scarf"));
+    }
+
+    @Test
+    public void testResolvedItemsLeaveTheFeed() throws Exception {
+        Item found = new Item("Grey Gloves", "Leather gloves", "Library", LocalDate.now(), "found", "");
+        found.setUser(owner);
+        found = itemRepository.save(found);
+
+        MvcResult result = mockMvc.perform(get("/api/items/feed").param("type", "found"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        found.changeStatus(Item.RESOLVED, Instant.now());
+        itemRepository.save(found);
+
+        String stream = awaitContent(result.getResponse(), "event:deleted");
+        assertFalse(stream.contains("event:updated"));
+        assertFalse(stream.contains("Grey Gloves"));
+    }
+
+    private static String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = response.getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = response.getContentAsString();
+        }
+        assertTrue(content.contains(expected), content);
+        return content;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.lostandfound;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.LocalDate;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.lostandfound.model.Item;
+import com.example.lostandfound.model.User;
+import com.example.lostandfound.repository.ItemRepository;
+import com.example.lostandfound.repository.UserRepository;
+import com.example.lostandfound.security.JwtUtil;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Owned writes the way they run on databases without H2's OLD TABLE: lock and read, then update
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "lostandfound.items.old-table-writes=false"
+})
+@AutoConfigureMockMvc
+public class ItemLockingWriteTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private String token;
+    private Item item;
+    private Item otherItem;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User owner = userRepository.save(new User("owner", "hash", "owner@example.com", "ROLE_USER"));
+        User other = userRepository.save(new User("other", "hash", "other@example.com", "ROLE_USER"));
+        item = new Item("Wallet", "Description", "Library", LocalDate.of(2025, 2, 14), "lost", "");
+        item.setUser(owner);
+        item = itemRepository.save(item);
+        otherItem = new Item("Keys", "Description", "Library", LocalDate.of(2025, 2, 14), "lost", "");
+        otherItem.setUser(other);
+        otherItem = itemRepository.save(otherItem);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        token = jwtUtil.generateToken("owner");
+        mockMvc.perform(get("/api/items").param("limit", "1").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+        statistics.clear();
+    }
+
+    @Test
+    public void testOwnedUpdateLocksThenUpdates() throws Exception {
+        mockMvc.perform(put("/api/items/" + item.getId())
+                .header("Authorization", "Bearer " + token)
+                .header("If-Match", "\"" + item.getVersion() + "\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Black Wallet\",\"description\":\"Description\",\"location\":\"Library\","
+                        + "\"date\":\"2025-02-14\",\"type\":\"lost\",\"imageUrl\":\"\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + (item.getVersion() + 1) + "\""))
+                .andExpect(jsonPath("$.title").value("Black Wallet"));
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        Item updated = itemRepository.findById(item.getId()).get();
+        assertEquals("Black Wallet", updated.getTitle());
+    }
+
+    @Test
+    public void testFailedChecksWriteNothing() throws Exception {
+        mockMvc.perform(put("/api/items/" + item.getId())
+                .header("Authorization", "Bearer " + token)
+                .header("If-Match", "\"" + (item.getVersion() + 5) + "\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Black Wallet\",\"description\":\"Description\",\"location\":\"Library\","
+                        + "\"date\":\"2025-02-14\",\"type\":\"lost\",\"imageUrl\":\"\"}"))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete("/api/items/" + otherItem.getId())
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+
+        assertEquals("Wallet", itemRepository.findById(item.getId()).get().getTitle());
+        assertEquals(Item.OPEN, itemRepository.findById(otherItem.getId()).get().getStatus());
+    }
+
+    @Test
+    public void testOwnedDelete() throws Exception {
+        mockMvc.perform(delete("/api/items/" + item.getId())
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        Item deleted = itemRepository.findById(item.getId()).get();
+        assertEquals(Item.DELETED, deleted.getStatus());
+        assertEquals(item.getVersion() + 1, deleted.getVersion());
+    }
+}
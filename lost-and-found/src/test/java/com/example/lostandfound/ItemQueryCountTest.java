@@ -0,0 +1,160 @@
+package com.example.lostandfound;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.LocalDate;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.lostandfound.model.Item;
+import com.example.lostandfound.model.User;
+import com.example.lostandfound.repository.ItemRepository;
+import com.example.lostandfound.repository.UserRepository;
+import com.example.lostandfound.security.JwtUtil;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Guards against N+1 regressions: one page of items must cost a single SQL statement
+// no matter how many distinct owners it contains.
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "lostandfound.search.index.enabled=false"
+})
+@AutoConfigureMockMvc
+public class ItemQueryCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private String token;
+    private Item firstItem;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+
+        // 20 items spread across 5 owners
+        for (int u = 0; u < 5; u++) {
+            User owner = userRepository.save(new User("owner" + u, "hash", "owner" + u + "@example.com", "ROLE_USER"));
+            for (int i = 0; i < 4; i++) {
+                Item item = new Item("Item " + u + "-" + i, "Description", "Library", LocalDate.of(2025, 2, 14),
+                        "lost", "");
+                item.setUser(owner);
+                item = itemRepository.save(item);
+                if (firstItem == null) {
+                    firstItem = item;
+                }
+            }
+        }
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        token = jwtUtil.generateToken("owner0");
+
+        // Warm the JWT and user caches so only the endpoint's own statements are counted
+        mockMvc.perform(get("/api/items").param("limit", "1").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+        statistics.clear();
+    }
+
+    @Test
+    public void testItemPageIsOneStatement() throws Exception {
+        mockMvc.perform(get("/api/items")
+                .param("limit", "20")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(20))
+                .andExpect(jsonPath("$[0].user").doesNotExist());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testSearchFallbackIsOneStatement() throws Exception {
+        // With the index disabled search goes to SQL; the projection must not load any owner
+        mockMvc.perform(get("/api/items/search")
+                .param("type", "lost"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(20));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testContactIsOneStatement() throws Exception {
+        mockMvc.perform(get("/api/items/" + firstItem.getId() + "/contact")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("owner0@example.com"));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testOwnedUpdateIsOneStatement() throws Exception {
+        // Ownership and version are checked by the UPDATE itself, nothing is loaded first
+        mockMvc.perform(put("/api/items/" + firstItem.getId())
+                .header("Authorization", "Bearer " + token)
+                .header("If-Match", "\"" + firstItem.getVersion() + "\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Black Wallet\",\"description\":\"Description\",\"location\":\"Library\","
+                        + "\"date\":\"2025-02-14\",\"type\":\"lost\",\"imageUrl\":\"\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Black Wallet"));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals("Black Wallet", itemRepository.findById(firstItem.getId()).get().getTitle());
+    }
+
+    @Test
+    public void testOwnedDeleteIsOneStatement() throws Exception {
+        mockMvc.perform(delete("/api/items/" + firstItem.getId())
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(Item.DELETED, itemRepository.findById(firstItem.getId()).get().getStatus());
+    }
+
+    @Test
+    public void testRefusedWriteIsExplained() throws Exception {
+        // Owned by owner1: the UPDATE matches nothing, then one lookup decides between 403 and 404
+        Item other = itemRepository.findAll().stream()
+                .filter(item -> !item.getUser().getId().equals(firstItem.getUser().getId()))
+                .findFirst().get();
+        statistics.clear();
+        mockMvc.perform(delete("/api/items/" + other.getId())
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        mockMvc.perform(delete("/api/items/" + Long.MAX_VALUE)
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isNotFound());
+    }
+}
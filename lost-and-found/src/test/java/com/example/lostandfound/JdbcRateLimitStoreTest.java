@@ -0,0 +1,55 @@
+package com.example.lostandfound;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.lostandfound.ratelimit.JdbcRateLimitStore;
+import com.example.lostandfound.ratelimit.RateLimit;
+import com.example.lostandfound.ratelimit.RateLimitStore;
+import com.example.lostandfound.repository.RateLimitBucketRepository;
+
+@SpringBootTest(properties = "lostandfound.rate-limit.store=jdbc")
+public class JdbcRateLimitStoreTest {
+
+    @Autowired
+    private RateLimitStore rateLimitStore;
+
+    @Autowired
+    private RateLimitBucketRepository rateLimitBucketRepository;
+
+    private final RateLimit limit = new RateLimit("test", 2, Duration.ofSeconds(10));
+
+    @BeforeEach
+    public void setup() {
+        rateLimitBucketRepository.deleteAll();
+    }
+
+    @Test
+    public void testBucketIsSharedThroughTheDatabase() {
+        assertTrue(rateLimitStore instanceof JdbcRateLimitStore);
+        long now = 1_000_000L;
+
+        assertEquals(0, rateLimitStore.acquire("client", limit, now));
+        assertEquals(0, rateLimitStore.acquire("client", limit, now));
+        // Empty: the next token comes one interval (10s / 2) later
+        assertEquals(5_000, rateLimitStore.acquire("client", limit, now));
+        assertEquals(0, rateLimitStore.acquire("other", limit, now));
+
+        assertEquals(0, rateLimitStore.acquire("client", limit, now + 5_000));
+        assertEquals(1, rateLimitStore.acquire("client", limit, now + 9_999));
+    }
+
+    @Test
+    public void testFullBucketsAreCleanedUp() {
+        rateLimitStore.acquire("client", limit, 1_000L);
+        ((JdbcRateLimitStore) rateLimitStore).deleteFullBuckets();
+        assertEquals(0, rateLimitBucketRepository.count());
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.lostandfound;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import com.example.lostandfound.model.User;
+import com.example.lostandfound.repository.ItemRepository;
+import com.example.lostandfound.repository.UserRepository;
+import com.example.lostandfound.security.JwtAuthenticationCache;
+import com.example.lostandfound.security.JwtUtil;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// A cached token must never be accepted in a case where verifying it would fail.
+// Verifications are counted through the timer JwtRequestFilter records on every cache miss.
+@SpringBootTest
+@AutoConfigureMockMvc
+public class JwtAuthenticationCacheTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private JwtAuthenticationCache jwtAuthenticationCache;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User alice;
+
+    @BeforeEach
+    public void setup() {
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+        alice = userRepository.save(new User("alice", "x", "alice@example.com", "ROLE_USER"));
+    }
+
+    @Test
+    public void testRepeatRequestIsServedFromCache() throws Exception {
+        String token = jwtUtil.generateToken("alice");
+        long verified = verifications("valid");
+
+        request(token, status().isOk());
+        request(token, status().isOk());
+
+        assertEquals(verified + 1, verifications("valid"));
+        assertNotNull(jwtAuthenticationCache.get(token));
+    }
+
+    @Test
+    public void testExpiredTokenIsRejected() throws Exception {
+        // JWT expiry has second precision, so give the token a couple of seconds
+        String token = jwtUtil.generateToken("alice", 2000);
+        request(token, status().isOk());
+        assertNotNull(jwtAuthenticationCache.get(token));
+
+        Thread.sleep(3000);
+
+        // The entry expired with the token, so the request is verified again and refused
+        assertNull(jwtAuthenticationCache.get(token));
+        long expired = verifications("expired");
+        request(token, status().isForbidden());
+        assertEquals(expired + 1, verifications("expired"));
+    }
+
+    @Test
+    public void testTamperedTokenMissesCache() throws Exception {
+        String token = jwtUtil.generateToken("alice");
+        request(token, status().isOk());
+
+        // Same header and claims, different signature: a different cache key that fails verification
+        int signature = token.lastIndexOf('.') + 10;
+        char replacement = token.charAt(signature) == 'A' ? 'B' : 'A';
+        String tampered = token.substring(0, signature) + replacement + token.substring(signature + 1);
+
+        assertNull(jwtAuthenticationCache.get(tampered));
+        long invalid = verifications("invalid");
+        request(tampered, status().isForbidden());
+        assertEquals(invalid + 1, verifications("invalid"));
+        assertNull(jwtAuthenticationCache.get(tampered));
+    }
+
+    @Test
+    public void testEvictedUserIsVerifiedAgain() throws Exception {
+        String token = jwtUtil.generateToken("alice");
+        request(token, status().isOk());
+        long verified = verifications("valid");
+
+        jwtAuthenticationCache.evictUser("alice");
+
+        assertNull(jwtAuthenticationCache.get(token));
+        request(token, status().isOk());
+        assertEquals(verified + 1, verifications("valid"));
+    }
+
+    @Test
+    public void testUserChangeDropsCachedPrincipal() throws Exception {
+        String token = jwtUtil.generateToken("alice");
+        request(token, status().isOk());
+        assertEquals("ROLE_USER", cachedRole(token));
+
+        alice.setRole("ROLE_ADMIN");
+        userRepository.save(alice);
+
+        // The next request loads the changed user instead of reusing the old principal
+        assertNull(jwtAuthenticationCache.get(token));
+        request(token, status().isOk());
+        assertEquals("ROLE_ADMIN", cachedRole(token));
+
+        userRepository.delete(alice);
+        assertNull(jwtAuthenticationCache.get(token));
+        request(token, status().isForbidden());
+    }
+
+    private void request(String token, ResultMatcher expected) throws Exception {
+        mockMvc.perform(get("/api/items").header("Authorization", "Bearer " + token))
+                .andExpect(expected);
+    }
+
+    private String cachedRole(String token) {
+        return jwtAuthenticationCache.get(token).getAuthorities().iterator().next().getAuthority();
+    }
+
+    private long verifications(String outcome) {
+        Timer timer = meterRegistry.find("lostandfound.jwt.verification").tag("outcome", outcome).timer();
+        return timer != null ? timer.count() : 0;
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.lostandfound;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.lostandfound.model.Item;
+import com.example.lostandfound.model.OutboxMessage;
+import com.example.lostandfound.model.User;
+import com.example.lostandfound.notification.OutboxDispatcher;
+import com.example.lostandfound.repository.ItemRepository;
+import com.example.lostandfound.repository.OutboxMessageRepository;
+import com.example.lostandfound.repository.UserRepository;
+import com.example.lostandfound.security.JwtUtil;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+import jakarta.mail.internet.MimeMessage;
+
+// The scheduler is switched off so each test drives the dispatcher itself
+@SpringBootTest(properties = {
+    "spring.mail.port=3025",
+    "lostandfound.notifications.dispatch.enabled=false"
+})
+@AutoConfigureMockMvc
+public class NotificationOutboxTest {
+
+    // Local SMTP stand-in on ServerSetupTest's port 3025
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User owner;
+    private User finder;
+    private Item item;
+
+    @BeforeEach
+    public void setup() {
+        outboxMessageRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+
+        owner = userRepository.save(new User("owner", "x", "owner@example.com", "ROLE_USER"));
+        finder = userRepository.save(new User("finder", "x", "finder@example.com", "ROLE_USER"));
+
+        item = new Item("Blue Backpack", "Backpack with a laptop inside", "Station", LocalDate.now(), "lost", "");
+        item.setUser(owner);
+        itemRepository.save(item);
+    }
+
+    @Test
+    public void testContactRequestIsQueuedThenDelivered() throws Exception {
+        String token = jwtUtil.generateToken(finder.getUsername());
+        mockMvc.perform(post("/api/items/" + item.getId() + "/contact-requests")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"message\":\"I think I found it\"}"))
+                .andExpect(status().isAccepted());
+
+        // Queued with the request, but nothing has gone to the mail server yet
+        assertEquals(1, outboxMessageRepository.countByStatus(OutboxMessage.PENDING));
+        assertEquals(0, greenMail.getReceivedMessages().length);
+
+        assertEquals(1, outboxDispatcher.dispatch());
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(1, received.length);
+        assertEquals("owner@example.com", received[0].getAllRecipients()[0].toString());
+        assertEquals(1, outboxMessageRepository.countByStatus(OutboxMessage.SENT));
+    }
+
+    @Test
+    public void testOwnerCannotContactThemselves() throws Exception {
+        String token = jwtUtil.generateToken(owner.getUsername());
+        mockMvc.perform(post("/api/items/" + item.getId() + "/contact-requests")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"message\":\"hello\"}"))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(0, outboxMessageRepository.count());
+    }
+
+    @Test
+    public void testStatusChangeNotifiesOwner() throws Exception {
+        String token = jwtUtil.generateToken(owner.getUsername());
+        mockMvc.perform(put("/api/items/" + item.getId() + "/status")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"RESOLVED\"}"))
+                .andExpect(status().isOk());
+
+        OutboxMessage message = outboxMessageRepository.findAll().get(0);
+        assertEquals("owner@example.com", message.getRecipient());
+        assertEquals("\"Blue Backpack\" is now resolved", message.getSubject());
+
+        // Setting the status it already has changes nothing and sends nothing
+        mockMvc.perform(put("/api/items/" + item.getId() + "/status")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"RESOLVED\"}"))
+                .andExpect(status().isOk());
+        assertEquals(1, outboxMessageRepository.count());
+    }
+
+    @Test
+    public void testDueMessageIsClaimedOnce() throws Exception {
+        String token = jwtUtil.generateToken(finder.getUsername());
+        mockMvc.perform(post("/api/items/" + item.getId() + "/contact-requests")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"message\":\"I think I found it\"}"))
+                .andExpect(status().isAccepted());
+
+        // Two dispatchers read the row before either claimed it: only the first claim takes
+        OutboxMessage message = outboxMessageRepository.findAll().get(0);
+        Instant lease = Instant.now().plusSeconds(120);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        assertEquals(1, (int) transactionTemplate.execute(status ->
+                outboxMessageRepository.claim(message.getId(), message.getNextAttemptAt(), lease)));
+        assertEquals(0, (int) transactionTemplate.execute(status ->
+                outboxMessageRepository.claim(message.getId(), message.getNextAttemptAt(), lease)));
+
+        // Leased to the first dispatcher, so nothing is due for anyone else
+        assertEquals(0, outboxDispatcher.dispatch());
+        assertEquals(0, greenMail.getReceivedMessages().length);
+    }
+
+    @Test
+    public void testFailedDeliveryIsRescheduled() throws Exception {
+        greenMail.stop();
+
+        String token = jwtUtil.generateToken(finder.getUsername());
+        mockMvc.perform(post("/api/items/" + item.getId() + "/contact-requests")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"message\":\"I think I found it\"}"))
+                .andExpect(status().isAccepted());
+
+        outboxDispatcher.dispatch();
+
+        OutboxMessage message = outboxMessageRepository.findAll().get(0);
+        assertEquals(OutboxMessage.PENDING, message.getStatus());
+        assertEquals(1, message.getAttempts());
+        assertTrue(message.getNextAttemptAt().isAfter(Instant.now()));
+
+        // Not due again until the backoff has passed
+        assertEquals(0, outboxDispatcher.dispatch());
+    }
+}
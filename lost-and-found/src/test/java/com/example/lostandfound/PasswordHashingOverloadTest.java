@@ -0,0 +1,125 @@
+package com.example.lostandfound;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.example.lostandfound.model.User;
+import com.example.lostandfound.repository.ItemRepository;
+import com.example.lostandfound.repository.UserRepository;
+import com.example.lostandfound.security.PasswordHashingService;
+
+// One hashing thread and one queue slot: a blocked hash plus a queued one fill the pool, and
+// the next register or login has to be turned away instead of waiting
+@SpringBootTest(properties = {
+    "lostandfound.security.password-hashing.threads=1",
+    "lostandfound.security.password-hashing.queue-capacity=1"
+})
+@AutoConfigureMockMvc
+public class PasswordHashingOverloadTest {
+
+    private static final String BLOCKING = "blocks-the-hashing-thread";
+
+    private static final CountDownLatch hashing = new CountDownLatch(1);
+    private static final CountDownLatch release = new CountDownLatch(1);
+
+    @TestConfiguration
+    static class BlockingEncoderConfig {
+
+        // Holds the hashing thread for BLOCKING until the test releases it
+        @Bean
+        @Primary
+        BCryptPasswordEncoder blockingPasswordEncoder() {
+            return new BCryptPasswordEncoder(4) {
+                @Override
+                public String encode(CharSequence rawPassword) {
+                    if (BLOCKING.contentEquals(rawPassword)) {
+                        hashing.countDown();
+                        try {
+                            release.await(10, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    return super.encode(rawPassword);
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private BCryptPasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    public void setup() {
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+        userRepository.save(new User("userE", passwordEncoder.encode("passwordE"), "userE@example.com", "ROLE_USER"));
+    }
+
+    @Test
+    public void testFullHashingPoolAnswers503() throws Exception {
+        CompletableFuture<String> running = passwordHashingService.encode(BLOCKING);
+        assertTrue(hashing.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = passwordHashingService.encode("waits-in-the-queue");
+
+        try {
+            perform("/api/auth/register",
+                    "{\"username\":\"userF\",\"password\":\"passwordF\",\"email\":\"userF@example.com\"}")
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "1"));
+            perform("/api/auth/login", "{\"username\":\"userE\",\"password\":\"passwordE\"}")
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "1"));
+        } finally {
+            release.countDown();
+        }
+        running.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+
+        // Once the pool has drained the same requests go through
+        perform("/api/auth/login", "{\"username\":\"userE\",\"password\":\"passwordE\"}")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").exists());
+    }
+
+    private ResultActions perform(String uri, String body) throws Exception {
+        MvcResult result = mockMvc.perform(post(uri)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+}
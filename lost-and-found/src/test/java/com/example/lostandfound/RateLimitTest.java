@@ -0,0 +1,95 @@
+package com.example.lostandfound;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Small buckets with a long refill so nothing trickles back in during the test; the in-memory store
+// stands in for the shared one
+@SpringBootTest(properties = {
+    "lostandfound.rate-limit.store=local",
+    "lostandfound.rate-limit.auth.capacity=3",
+    "lostandfound.rate-limit.auth.period=PT1H",
+    "lostandfound.rate-limit.login.capacity=2",
+    "lostandfound.rate-limit.login.period=PT1H",
+    "lostandfound.rate-limit.search.capacity=3",
+    "lostandfound.rate-limit.search.period=PT1H"
+})
+@AutoConfigureMockMvc
+public class RateLimitTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void testSearchIsLimitedPerAddress() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/items/search").param("title", "wallet").with(from("10.0.0.1")))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/api/items/search/facets").with(from("10.0.0.1")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+
+        // Other clients have buckets of their own
+        mockMvc.perform(get("/api/items/search").param("title", "wallet").with(from("10.0.0.2")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void testLoginIsLimitedPerUsername() throws Exception {
+        // Each attempt from a different address, so only the username bucket runs dry
+        for (int i = 0; i < 2; i++) {
+            MvcResult login = mockMvc.perform(login("stuffed", "10.0.1." + i)).andReturn();
+            mockMvc.perform(asyncDispatch(login))
+                    .andExpect(status().isUnauthorized());
+        }
+        MvcResult refused = mockMvc.perform(login("stuffed", "10.0.1.9")).andReturn();
+        mockMvc.perform(asyncDispatch(refused))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+
+        MvcResult other = mockMvc.perform(login("someone-else", "10.0.1.9")).andReturn();
+        mockMvc.perform(asyncDispatch(other))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    public void testAuthIsLimitedPerAddress() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            MvcResult login = mockMvc.perform(login("user" + i, "10.0.2.1")).andReturn();
+            mockMvc.perform(asyncDispatch(login))
+                    .andExpect(status().isUnauthorized());
+        }
+        // Turned away by the filter, before the controller starts any async work
+        mockMvc.perform(login("user9", "10.0.2.1"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+    }
+
+    private static MockHttpServletRequestBuilder login(String username, String address) {
+        return post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + username + "\",\"password\":\"guess\"}")
+                .with(from(address));
+    }
+
+    private static RequestPostProcessor from(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.lostandfound;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.lostandfound.model.User;
+import com.example.lostandfound.repository.ItemRepository;
+import com.example.lostandfound.repository.UserRepository;
+import com.example.lostandfound.security.JwtUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Two independent in-memory databases stand in for primary and replica. Nothing replicates
+// between them, so a row is only visible through whichever pool the request was routed to.
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+    "lostandfound.datasource.replica.jdbc-url=" + ReadReplicaRoutingTest.REPLICA_URL,
+    "lostandfound.datasource.replica.username=sa",
+    "lostandfound.datasource.read-your-writes.window=PT1M",
+    // Searches run the SQL query, which is what reads from the replica
+    "lostandfound.search.index.enabled=false"
+})
+@AutoConfigureMockMvc
+public class ReadReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    public void setup() {
+        // The replica gets the schema but none of the data
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").load().migrate();
+
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+        userRepository.save(new User("writer", "x", "writer@example.com", "ROLE_USER"));
+        userRepository.save(new User("reader", "x", "reader@example.com", "ROLE_USER"));
+    }
+
+    @Test
+    public void testReadsUseReplicaExceptAfterOwnWrite() throws Exception {
+        String writerToken = jwtUtil.generateToken("writer");
+        String readerToken = jwtUtil.generateToken("reader");
+
+        MvcResult created = mockMvc.perform(post("/api/items")
+                .header("Authorization", "Bearer " + writerToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Green Umbrella\",\"description\":\"Folding umbrella\","
+                        + "\"location\":\"Library\",\"date\":\"2024-03-01\",\"type\":\"found\",\"imageUrl\":\"\"}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        long id = objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asLong();
+
+        // Another user's read goes to the replica, which never received the row
+        mockMvc.perform(get("/api/items/" + id)
+                .header("Authorization", "Bearer " + readerToken))
+                .andExpect(status().isNotFound());
+
+        // The writer is still inside the read-your-writes window and reads from the primary
+        mockMvc.perform(get("/api/items/" + id)
+                .header("Authorization", "Bearer " + writerToken))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void testCachedSearchIsComputedOnPrimary() throws Exception {
+        String writerToken = jwtUtil.generateToken("writer");
+
+        mockMvc.perform(post("/api/items")
+                .header("Authorization", "Bearer " + writerToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Blue Scarf\",\"description\":\"Wool scarf\","
+                        + "\"location\":\"Cafeteria\",\"date\":\"2024-03-02\",\"type\":\"lost\",\"imageUrl\":\"\"}"))
+                .andExpect(status().isOk());
+
+        // The write moved the cache generation; a page read from the replica would cache its stale rows under it
+        mockMvc.perform(get("/api/items/search").param("type", "lost"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].title").value("Blue Scarf"));
+        mockMvc.perform(get("/api/items/search").param("type", "lost"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+}
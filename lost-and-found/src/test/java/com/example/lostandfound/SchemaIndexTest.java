@@ -0,0 +1,59 @@
+package com.example.lostandfound;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.lostandfound.model.User;
+import com.example.lostandfound.repository.ItemRepository;
+import com.example.lostandfound.repository.UserRepository;
+
+// Checks that the hot lookup predicates are answered from the indexes the migrations create
+@SpringBootTest
+public class SchemaIndexTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @BeforeEach
+    public void setup() {
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void testLookupsUseIndexes() {
+        assertIndexed("SELECT * FROM users WHERE username = 'userA'");
+        assertIndexed("SELECT * FROM item WHERE user_id = 1");
+        assertIndexed("SELECT * FROM item WHERE type = 'lost'");
+        assertIndexed("SELECT * FROM item WHERE type = 'lost' AND date = DATE '2025-02-14'");
+        assertIndexed("SELECT * FROM item WHERE date = DATE '2025-02-14'");
+        assertIndexed("SELECT * FROM item WHERE title_lower = 'lost keys'");
+        assertIndexed("SELECT * FROM item WHERE location_lower LIKE 'libr%'");
+    }
+
+    @Test
+    public void testUsernameIsUnique() {
+        userRepository.save(new User("userA", "hash", "userA@example.com", "ROLE_USER"));
+        assertThrows(DataIntegrityViolationException.class,
+                () -> userRepository.save(new User("userA", "hash", "other@example.com", "ROLE_USER")));
+    }
+
+    // H2 marks a full scan as "tableScan" in the plan comment
+    private void assertIndexed(String sql) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+        assertFalse(plan.contains("tableScan"), "Expected an index lookup but got: " + plan);
+    }
+}
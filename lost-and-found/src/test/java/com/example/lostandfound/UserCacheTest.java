@@ -0,0 +1,211 @@
+package com.example.lostandfound;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.example.lostandfound.model.Item;
+import com.example.lostandfound.model.OutboxMessage;
+import com.example.lostandfound.model.User;
+import com.example.lostandfound.repository.ItemRepository;
+import com.example.lostandfound.repository.OutboxMessageRepository;
+import com.example.lostandfound.repository.UserRepository;
+import com.example.lostandfound.security.JwtAuthenticationCache;
+import com.example.lostandfound.security.JwtUtil;
+import com.example.lostandfound.security.UserCache;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Outbox dispatch is off so queued contact requests stay readable
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "lostandfound.notifications.dispatch.enabled=false"
+})
+@AutoConfigureMockMvc
+public class UserCacheTest {
+
+    private static final String NEW_ITEM = "{\"title\":\"Grey Gloves\",\"description\":\"Leather gloves\","
+            + "\"location\":\"Gym\",\"date\":\"2025-02-14\",\"type\":\"found\",\"imageUrl\":\"\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private JwtAuthenticationCache jwtAuthenticationCache;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User alice;
+
+    @BeforeEach
+    public void setup() {
+        outboxMessageRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+        alice = userRepository.save(new User("alice", "x", "alice@example.com", "ROLE_USER"));
+    }
+
+    @Test
+    public void testHitAndMissCounters() {
+        long hits = userCache.getHitCount();
+        long misses = userCache.getMissCount();
+
+        assertTrue(userCache.findByUsername("alice").isPresent());
+        assertEquals(misses + 1, userCache.getMissCount());
+        assertEquals(hits, userCache.getHitCount());
+
+        assertTrue(userCache.findByUsername("alice").isPresent());
+        assertEquals(misses + 1, userCache.getMissCount());
+        assertEquals(hits + 1, userCache.getHitCount());
+    }
+
+    @Test
+    public void testRegistrationIsSeenImmediately() throws Exception {
+        // Unknown usernames are not cached, so the lookup before registering cannot hide the new user
+        assertFalse(userCache.findByUsername("newcomer").isPresent());
+
+        MvcResult register = mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"newcomer\",\"password\":\"secret\",\"email\":\"newcomer@example.com\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(register))
+                .andExpect(status().isOk());
+
+        assertTrue(userCache.findByUsername("newcomer").isPresent());
+        mockMvc.perform(get("/api/items")
+                .header("Authorization", "Bearer " + jwtUtil.generateToken("newcomer")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void testRenameDropsEntriesUnderOldName() throws Exception {
+        String oldToken = jwtUtil.generateToken("alice");
+        mockMvc.perform(get("/api/items").header("Authorization", "Bearer " + oldToken))
+                .andExpect(status().isOk());
+        assertNotNull(jwtAuthenticationCache.get(oldToken));
+        assertTrue(userCache.findByUsername("alice").isPresent());
+
+        // The change event carries the new name only; the old one is found through the user id
+        alice.setUsername("alicia");
+        userRepository.save(alice);
+
+        assertNull(jwtAuthenticationCache.get(oldToken));
+        assertFalse(userCache.findByUsername("alice").isPresent());
+        mockMvc.perform(get("/api/items").header("Authorization", "Bearer " + oldToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/items")
+                .header("Authorization", "Bearer " + jwtUtil.generateToken("alicia")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void testDeletedUserIsDropped() throws Exception {
+        String token = jwtUtil.generateToken("alice");
+        mockMvc.perform(get("/api/items").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        userRepository.delete(alice);
+
+        assertNull(jwtAuthenticationCache.get(token));
+        mockMvc.perform(get("/api/items").header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void testNextRequestSeesChangedEmail() throws Exception {
+        User owner = userRepository.save(new User("owner", "x", "owner@example.com", "ROLE_USER"));
+        Item item = new Item("Blue Backpack", "Backpack", "Station", LocalDate.of(2025, 2, 14), "lost", "");
+        item.setUser(owner);
+        itemRepository.save(item);
+
+        String token = jwtUtil.generateToken("alice");
+        mockMvc.perform(post("/api/items/" + item.getId() + "/contact-requests")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"message\":\"Mine?\"}"))
+                .andExpect(status().isAccepted());
+
+        alice.setEmail("alice@example.org");
+        userRepository.save(alice);
+
+        mockMvc.perform(post("/api/items/" + item.getId() + "/contact-requests")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"message\":\"Mine?\"}"))
+                .andExpect(status().isAccepted());
+
+        List<OutboxMessage> messages = outboxMessageRepository.findAll();
+        messages.sort((a, b) -> a.getId().compareTo(b.getId()));
+        assertEquals(2, messages.size());
+        assertTrue(messages.get(0).getBody().contains("alice@example.com"));
+        assertTrue(messages.get(1).getBody().contains("alice@example.org"));
+    }
+
+    @Test
+    public void testWriteRequestMakesNoUsersQuery() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String token = jwtUtil.generateToken("alice");
+
+        // Cold: the JWT filter loads the user once, the controller reuses that entry
+        statistics.clear();
+        long misses = userCache.getMissCount();
+        mockMvc.perform(post("/api/items")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(NEW_ITEM))
+                .andExpect(status().isOk());
+        assertEquals(1, userLoads(statistics));
+        assertEquals(misses + 1, userCache.getMissCount());
+
+        // Warm: the user row is not read at all
+        statistics.clear();
+        mockMvc.perform(post("/api/items")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(NEW_ITEM))
+                .andExpect(status().isOk());
+        assertEquals(0, userLoads(statistics));
+        assertEquals(misses + 1, userCache.getMissCount());
+    }
+
+    private static long userLoads(Statistics statistics) {
+        return statistics.getEntityStatistics(User.class.getName()).getLoadCount();
+    }
+}